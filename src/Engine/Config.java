@@ -38,6 +38,15 @@ public class Config
 	private int seed = 0;
 	private int moveCountLimit = 250;
 	private boolean partOne;
+	private int aiSearchThreads = 0;
+	private int aiTranspositionTableSize = 16;
+	private int aiMoveTimeMargin = 500;
+	private int aiSearchDepth = 5;
+	private float aiMctsExploration = 0.7f;
+	private int aiMctsRolloutDepth = 8;
+	private boolean aiPonder = true;
+	private String aiEvaluation = "DISTANCE_FIELD";
+	private int aiPlannedGoals = 2;
 	
 	/**
 	 * Generate empty config
@@ -153,6 +162,42 @@ public class Config
 					{
 						this.https = this.isTrue(value);
 					}
+					else if ("AI_SEARCH_THREADS".equals(key))
+					{
+						this.aiSearchThreads = Math.abs(Integer.parseInt(value));
+					}
+					else if ("AI_TRANSPOSITION_TABLE_SIZE".equals(key))
+					{
+						this.aiTranspositionTableSize = Math.abs(Integer.parseInt(value));
+					}
+					else if ("AI_MOVE_TIME_MARGIN".equals(key))
+					{
+						this.aiMoveTimeMargin = Math.abs(Integer.parseInt(value));
+					}
+					else if ("AI_SEARCH_DEPTH".equals(key))
+					{
+						this.aiSearchDepth = Math.abs(Integer.parseInt(value));
+					}
+					else if ("AI_MCTS_EXPLORATION".equals(key))
+					{
+						this.aiMctsExploration = Math.abs(Float.parseFloat(value));
+					}
+					else if ("AI_MCTS_ROLLOUT_DEPTH".equals(key))
+					{
+						this.aiMctsRolloutDepth = Math.abs(Integer.parseInt(value));
+					}
+					else if ("AI_PONDER".equals(key))
+					{
+						this.aiPonder = this.isTrue(value);
+					}
+					else if ("AI_EVALUATION".equals(key))
+					{
+						this.aiEvaluation = value.toUpperCase();
+					}
+					else if ("AI_PLANNED_GOALS".equals(key))
+					{
+						this.aiPlannedGoals = Math.abs(Integer.parseInt(value));
+					}
 				}				
 			}
 		}
@@ -407,6 +452,51 @@ public class Config
 		return remote;
 	}
 
+	public int getAiSearchThreads()
+	{
+		return aiSearchThreads;
+	}
+
+	public int getAiTranspositionTableSize()
+	{
+		return aiTranspositionTableSize;
+	}
+
+	public int getAiMoveTimeMargin()
+	{
+		return aiMoveTimeMargin;
+	}
+
+	public int getAiSearchDepth()
+	{
+		return aiSearchDepth;
+	}
+
+	public float getAiMctsExploration()
+	{
+		return aiMctsExploration;
+	}
+
+	public int getAiMctsRolloutDepth()
+	{
+		return aiMctsRolloutDepth;
+	}
+
+	public boolean isAiPonder()
+	{
+		return aiPonder;
+	}
+
+	public String getAiEvaluation()
+	{
+		return aiEvaluation;
+	}
+
+	public int getAiPlannedGoals()
+	{
+		return aiPlannedGoals;
+	}
+
 	// Setters
 	
 	public void setApiKey(String apiKey)
@@ -481,4 +571,49 @@ public class Config
 	public boolean isPartOne() {
 		return partOne;
 	}
+
+	public void setAiSearchThreads(int aiSearchThreads)
+	{
+		this.aiSearchThreads = aiSearchThreads;
+	}
+
+	public void setAiTranspositionTableSize(int aiTranspositionTableSize)
+	{
+		this.aiTranspositionTableSize = aiTranspositionTableSize;
+	}
+
+	public void setAiMoveTimeMargin(int aiMoveTimeMargin)
+	{
+		this.aiMoveTimeMargin = aiMoveTimeMargin;
+	}
+
+	public void setAiSearchDepth(int aiSearchDepth)
+	{
+		this.aiSearchDepth = aiSearchDepth;
+	}
+
+	public void setAiMctsExploration(float aiMctsExploration)
+	{
+		this.aiMctsExploration = aiMctsExploration;
+	}
+
+	public void setAiMctsRolloutDepth(int aiMctsRolloutDepth)
+	{
+		this.aiMctsRolloutDepth = aiMctsRolloutDepth;
+	}
+
+	public void setAiPonder(boolean aiPonder)
+	{
+		this.aiPonder = aiPonder;
+	}
+
+	public void setAiEvaluation(String aiEvaluation)
+	{
+		this.aiEvaluation = aiEvaluation;
+	}
+
+	public void setAiPlannedGoals(int aiPlannedGoals)
+	{
+		this.aiPlannedGoals = aiPlannedGoals;
+	}
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package Engine;
 
+import Interface.CancellationToken;
 import Interface.PlayerModule;
 import Interface.PlayerMove;
 import Model.ModelProxy;
@@ -8,8 +9,16 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * The main game controller determines the flow of execution
@@ -28,6 +37,13 @@ public class Controller extends HasLogger
 	
 	// Game info
 	private List<Integer> initializedPlayers;
+	
+	// Runs the move() and lastMove() calls of player modules
+	private ExecutorService playerExecutor;
+	
+	// Latest call to each player module, by player number, which may
+	// still be running after it was cancelled
+	private Map<Integer, PlayerCall<?>> playerCalls;
 		
 	/**
 	 * Initializes the controller
@@ -43,6 +59,15 @@ public class Controller extends HasLogger
 		
 		this.model = new ModelProxy(c, l);
 		this.initializedPlayers = new ArrayList<Integer>();
+		this.playerCalls = new HashMap<Integer, PlayerCall<?>>();
+		
+		// Daemon threads, so a player ignoring cancellation cannot keep
+		// the client from exiting
+		this.playerExecutor = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "PlayerModule");
+			t.setDaemon(true);
+			return t;
+		});
 	}
 	
 	/**
@@ -292,6 +317,7 @@ public class Controller extends HasLogger
 		}
 		
 		this.log("Game has ended");
+		this.playerExecutor.shutdownNow();
 		this.winnerId = this.model.getWinner();
 		
 		if (this.winnerId > 0)
@@ -510,22 +536,8 @@ public class Controller extends HasLogger
 					this.log("Getting move from player " 
 						+ Integer.toString(playerNo));
 					
-					getMove m = new getMove(playerNo);
-					long timeStart = System.currentTimeMillis();
-					m.run();
-					
-					while (m.finished == false && 
-						(System.currentTimeMillis() - timeStart < timeLimit))
-					{
-						Thread.sleep(100);
-					}
-					
-					if (m.nextMove != null)
-					{
-						nextMove = m.nextMove;
-					}
-					
-					m.join(100);
+					nextMove = this.callPlayer(new getMove(playerNo), timeLimit,
+						"getMove");
 				}
 				else
 				{
@@ -560,18 +572,11 @@ public class Controller extends HasLogger
             	{
             		if (this.model.isValidPlayer(otherPlayer) && this.model.isOwnPlayer(otherPlayer - 1))
             		{
-            			moveInfo mi = new moveInfo(otherPlayer, nextMove);
-    					long timeStart = System.currentTimeMillis();
-    					mi.run();
-    					
-    					while (!mi.moveInfoState 
-    							&& (System.currentTimeMillis() - timeStart 
-    								< timeLimit))
-    					{
-    						Thread.sleep(100);
-    					}
+            			Boolean moveInfoState = this.callPlayer(
+            				new moveInfo(otherPlayer, nextMove), timeLimit,
+            				"moveInfo");
     					
-    					if (!mi.moveInfoState)
+    					if (moveInfoState == null)
     					{
     						this.error("Player " + Integer.toString(playerNo) + 
     							" timed out or raised an " +
@@ -580,8 +585,6 @@ public class Controller extends HasLogger
     						this.invalidatePlayerOnServer(otherPlayer, 
     							"Error or timeout in moveInfo");
     					}
-    					
-    					mi.join(100);	
             		}
             	}
 			}
@@ -595,58 +598,187 @@ public class Controller extends HasLogger
 	}
 	
 	/**
-	 * This class fetches a move from a player.  It enforces the configured
-	 * time limit
-	 * @author Adam
+	 * Runs a player module call on the player executor and waits for it
+	 * until the time limit expires.  A call running past the time limit
+	 * has its cancellation token cancelled and its thread interrupted.
+	 * A player module ignoring both keeps running the cancelled call, so
+	 * it is not called again until that call has returned; the new call
+	 * fails instead, which drops the player.
+	 * @param call the player module call
+	 * @param timeLimit time limit of the call in milliseconds, or 0 or
+	 * less for no time limit
+	 * @param name name of the call, used in log messages
+	 * @return result of the call, or null if the call timed out, raised
+	 * an exception or was not made as an earlier call is still running
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private <T> T callPlayer(PlayerCall<T> call, long timeLimit, String name)
+		throws InterruptedException
+	{
+		PlayerCall<?> previousCall = this.playerCalls.get(call.playerNo);
+		
+		if (previousCall != null && previousCall.isRunning())
+		{
+			this.error("Player " + Integer.toString(call.playerNo) + 
+				" is still running a cancelled call, not calling " + name);
+			
+			return null;
+		}
+		
+		CancellationToken token = new CancellationToken(timeLimit);
+		
+		call.token = token;
+		this.playerCalls.put(call.playerNo, call);
+		
+		Future<T> result = this.playerExecutor.submit(call);
+		
+		try
+		{
+			if (timeLimit > 0)
+			{
+				return result.get(timeLimit, TimeUnit.MILLISECONDS);
+			}
+			
+			return result.get();
+		}
+		catch (TimeoutException e)
+		{
+			this.error("Time limit exceeded in " + name + ", cancelling");
+			call.abandon();
+			token.cancel();
+			result.cancel(true);
+		}
+		catch (ExecutionException e)
+		{
+			this.error("Error in " + name, e.getCause() instanceof Exception ?
+				(Exception) e.getCause() : e);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * A call to a player module, which hands its cancellation token to
+	 * the player module before calling it.  It tracks whether the player
+	 * module is running it, as its future reports a cancelled call done
+	 * at once, even while the player module keeps running it.
 	 */
-	private class getMove extends Thread
+	private abstract class PlayerCall<T> implements Callable<T>
 	{
-		// Finished is set to true once the call returns
-		public PlayerMove nextMove;
-		public Boolean finished;
+		// Cancellation token of this call
+		protected CancellationToken token;
 		
 		// Internal state
-		private int playerNo;
+		protected int playerNo;
+		private boolean abandoned;
+		private boolean running;
 		
 		/**
 		 * Constructor to be called before running
 		 * @param playerNo
 		 */
-		public getMove(int playerNo)
+		protected PlayerCall(int playerNo)
 		{
 			this.playerNo = playerNo;
-			this.finished = false;
 		}
 		
 		/**
-		 * Main execution
+		 * Main execution.  An abandoned call which has not started yet
+		 * does not call the player module at all
 		 */
-		public void run()
+		public T call() throws Exception
 		{
+			if (!this.start())
+			{
+				return null;
+			}
+			
 			try
 			{
-				this.nextMove = model.getPlayerModule(this.playerNo).move();
-				this.finished = true;
+				PlayerModule player = model.getPlayerModule(this.playerNo);
+				
+				player.setCancellationToken(this.token);
+				
+				return this.invoke(player);
 			}
-			catch(Exception e)
+			finally
 			{
-				error("Error in getMove", e);
+				this.finish();
 			}
 		}
+		
+		/**
+		 * Abandons the call after its time limit expired, so that it does
+		 * not start if it has not started yet
+		 */
+		public synchronized void abandon()
+		{
+			this.abandoned = true;
+		}
+		
+		/**
+		 * Returns whether the player module is running this call
+		 * @return
+		 */
+		public synchronized boolean isRunning()
+		{
+			return this.running;
+		}
+		
+		private synchronized boolean start()
+		{
+			this.running = !this.abandoned;
+			
+			return this.running;
+		}
+		
+		private synchronized void finish()
+		{
+			this.running = false;
+		}
+		
+		/**
+		 * Makes the call on the given player module
+		 * @param player
+		 * @return result of the call
+		 * @throws Exception
+		 */
+		protected abstract T invoke(PlayerModule player) throws Exception;
 	}
-
+	
 	/**
-	 * This class inform a player of others' moves.  It enforces the
-	 * configured time limit
+	 * This class fetches a move from a player.  The configured time limit
+	 * is enforced by callPlayer
+	 * @author Adam
 	 */
-	private class moveInfo extends Thread
+	private class getMove extends PlayerCall<PlayerMove>
 	{
-		// Is set to true once the call returns
-		public Boolean moveInfoState;
+		/**
+		 * Constructor to be called before running
+		 * @param playerNo
+		 */
+		public getMove(int playerNo)
+		{
+			super(playerNo);
+		}
 		
+		/**
+		 * Main execution
+		 */
+		protected PlayerMove invoke(PlayerModule player)
+		{
+			return player.move();
+		}
+	}
+
+	/**
+	 * This class inform a player of others' moves.  The configured time
+	 * limit is enforced by callPlayer
+	 */
+	private class moveInfo extends PlayerCall<Boolean>
+	{
 		// Internal state
 		private PlayerMove move;
-		private int playerNo;
 
 		/**
 		 * Constructor - to be called before running
@@ -655,27 +787,20 @@ public class Controller extends HasLogger
 		 */
 		public moveInfo(int playerNo, PlayerMove move)
 		{
+			super(playerNo);
 			this.move = move;
-			this.moveInfoState = false;
-			this.playerNo = playerNo;
 		}
 		
 		/**
 		 * Main execution
 		 */
-		public void run()
+		protected Boolean invoke(PlayerModule player)
 		{
-			try
-			{
-				log("Notifying player " + Integer.toString(this.playerNo) + 
-					" of last move");
-				model.getPlayerModule(this.playerNo).lastMove(this.move);
-				this.moveInfoState = true;
-			}
-			catch (Exception e)
-			{
-				error("Error in moveInfo", e);
-			}
+			log("Notifying player " + Integer.toString(this.playerNo) + 
+				" of last move");
+			player.lastMove(this.move);
+			
+			return true;
 		}
 	}
 	
@@ -0,0 +1,70 @@
+package Interface;
+
+/**
+ * This class lets the controller ask a player module to stop the call
+ * it is currently executing.  The controller creates one token per call
+ * to move() or lastMove() and cancels it when the call runs past its
+ * deadline.  Player modules should poll isCancelled() during long
+ * computations and return as soon as possible once it is set.
+ */
+public class CancellationToken
+{
+	// Deadline in System.nanoTime() units, only valid if hasDeadline is set
+	private final long deadline;
+	private final boolean hasDeadline;
+
+	// Set once the call is cancelled
+	private volatile boolean cancelled;
+
+	/**
+	 * Creates a token for a call with the given time limit
+	 * @param timeLimit time limit of the call in milliseconds, or 0 or
+	 * less if the call has no time limit
+	 */
+	public CancellationToken(long timeLimit)
+	{
+		this.hasDeadline = timeLimit > 0;
+		this.deadline = System.nanoTime() + timeLimit * 1000000L;
+	}
+
+	/**
+	 * Cancels the call
+	 */
+	public void cancel()
+	{
+		this.cancelled = true;
+	}
+
+	/**
+	 * Returns whether the call was cancelled
+	 * @return true if the call was cancelled, false otherwise
+	 */
+	public boolean isCancelled()
+	{
+		return this.cancelled;
+	}
+
+	/**
+	 * Returns whether the call has a time limit
+	 * @return true if the call has a time limit, false otherwise
+	 */
+	public boolean hasDeadline()
+	{
+		return this.hasDeadline;
+	}
+
+	/**
+	 * Returns the time left until the deadline of the call
+	 * @return remaining time in milliseconds, which is negative once the
+	 * deadline has passed, or Long.MAX_VALUE if the call has no time limit
+	 */
+	public long getRemainingTime()
+	{
+		if (!this.hasDeadline)
+		{
+			return Long.MAX_VALUE;
+		}
+
+		return (this.deadline - System.nanoTime()) / 1000000L;
+	}
+}
@@ -1,5 +1,6 @@
 package Interface;
 
+import Engine.Config;
 import Engine.Logger;
 
 import java.util.List;
@@ -12,6 +13,29 @@ import java.util.Set;
  */
 public interface PlayerModule
 {
+	/**
+	 * Passes the client configuration to your player module.  It is
+	 * called once, before init().  Implementing it is optional.
+	 * 
+	 * @param c the client configuration
+	 */
+	public default void configure(Config c)
+	{
+	}
+
+	/**
+	 * Passes the cancellation token of the call that is about to be
+	 * made to your player module.  It is called right before each call
+	 * to move() and lastMove(), on the thread making that call.  Once the
+	 * call runs past its time limit the token is cancelled and the thread
+	 * is interrupted.  Implementing it is optional.
+	 *
+	 * @param token the cancellation token of the next call
+	 */
+	public default void setCancellationToken(CancellationToken token)
+	{
+	}
+
 	/**
 	 * Initializes your player module.  In this method, be sure to
 	 * set up your data structures and pre-populate them with the starting
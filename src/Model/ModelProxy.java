@@ -864,6 +864,7 @@ public class ModelProxy extends HasLogger
 		}
 		// End conversion
 		
+		this.getPlayerModule(playerNo).configure(this.c);
 		this.getPlayerModule(playerNo).init(
 			l,
 			playerNo,
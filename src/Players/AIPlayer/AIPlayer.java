@@ -1,12 +1,15 @@
 package Players.AIPlayer;
 
+import Engine.Config;
 import Engine.Logger;
+import Interface.CancellationToken;
 import Interface.Coordinate;
 import Interface.PlayerModule;
 import Interface.PlayerMove;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AIPlayer Player
@@ -14,9 +17,48 @@ import java.util.Set;
 public class AIPlayer implements PlayerModule
 {
 	private Logger l;
+	private Config c;
 	private int playerId;
+	private final SearchAlgorithm searchAlgorithm;
 	private GameController gameController;
+	private volatile CancellationToken cancellationToken;
+
+	/**
+	 * Initializes the AIPlayer, which searches with alpha-beta
+	 */
+	public AIPlayer() {
+		this(SearchAlgorithm.ALPHA_BETA);
+	}
+
+	/**
+	 * Initializes an AI player searching with the specified search algorithm; it is the
+	 * hook for player modules reusing the AI player with another search
+	 *
+	 * @param searchAlgorithm - search algorithm the moves are chosen with
+	 */
+	protected AIPlayer(final SearchAlgorithm searchAlgorithm) {
+		this.searchAlgorithm = searchAlgorithm;
+	}
+
+	/**
+	 * Stores the client configuration, which tunes the AI player's search
+	 *
+	 * @param c - the client configuration
+	 */
+	public void configure(final Config c) {
+		this.c = c;
+	}
 	
+	/**
+	 * Stores the cancellation token of the next call, which stops the AI player's search
+	 * when the call runs out of time
+	 *
+	 * @param token - the cancellation token of the next call
+	 */
+	public void setCancellationToken(final CancellationToken token) {
+		this.cancellationToken = token;
+	}
+
 	/**
 	 * Initializes the AIPlayer with the specified parameters
 	 * 
@@ -42,7 +84,7 @@ public class AIPlayer implements PlayerModule
 
 		//SHOULDN'T NEED TO DO playerHomes.subList(...) but engine is return 4 players always at the moment
 		this.gameController = new GameController(playerId, playerHomes.subList(0, treasures.size()),
-                treasures, board, extra);
+                treasures, board, extra, this.c != null ? this.c : new Config(), this.searchAlgorithm);
 		
 		log("Loaded");
 	}
@@ -56,7 +98,50 @@ public class AIPlayer implements PlayerModule
 	public PlayerMove move() {
 		log("Move was requested...");
 
-		return this.gameController.findBestMove();
+		final PlayerMove bestMove = this.gameController.findBestMove(this.cancellationToken);
+		final TranspositionTable transpositionTable = this.gameController.getTranspositionTable();
+
+		final long searchTime = Math.max(1, this.gameController.getLastSearchTime());
+
+		//Ponder hits, and virtual machines which do not count the bytes each thread allocates, have no count
+		if(this.gameController.getLastAllocatedBytes() != AllocationCounter.NOT_COUNTED) {
+			log("Bytes allocated: " + this.gameController.getLastAllocatedBytes() + ", bytes allocated per second: " +
+					this.gameController.getLastAllocatedBytes() * TimeUnit.SECONDS.toNanos(1) / searchTime);
+		}
+
+		//The Monte Carlo tree search always runs until the move time budget runs out
+		if(this.searchAlgorithm == SearchAlgorithm.MONTE_CARLO_TREE_SEARCH) {
+			log("Simulations: " + this.gameController.getLastSimulationCount() + ", simulations per second: " +
+					this.gameController.getLastSimulationCount() * TimeUnit.SECONDS.toNanos(1) / searchTime +
+					", simulations kept from the previous move: " + this.gameController.getLastReusedSimulationCount());
+
+			return bestMove;
+		}
+
+		if(this.gameController.isLastPonderHit()) {
+			log("Ponder hit, returning the move searched on the opponent's time");
+		} else if(!this.gameController.isLastSearchComplete()) {
+			log("Out of time, returning the best move found so far");
+		}
+
+		log("Search depth reached: " + this.gameController.getLastSearchDepth() +
+				", move chosen at depth: " + this.gameController.getLastDecisionDepth());
+
+		//The nodes of a ponder hit were searched on the opponent's time
+		if(this.gameController.isLastPonderHit()) {
+			log("Nodes searched: " + this.gameController.getLastNodeCount());
+		} else {
+			log("Nodes searched: " + this.gameController.getLastNodeCount() + ", nodes per second: " +
+					this.gameController.getLastNodeCount() * TimeUnit.SECONDS.toNanos(1) / searchTime);
+		}
+
+		log("Duplicate moves left out: " + this.gameController.getLastDuplicateMoveCount());
+		log("Principal variation: " + this.gameController.getLastPrincipalVariation());
+
+		log("Transposition table hits: " + transpositionTable.getHits() +
+				", misses: " + transpositionTable.getMisses());
+
+		return bestMove;
 	}
 
 	/**
@@ -70,17 +155,20 @@ public class AIPlayer implements PlayerModule
 		log("Last move: " + m.toString());
 
 		this.gameController.handlePlayerMove(m);
+
+		log("Position hash: " + String.format("%016x", this.gameController.getPositionHash()));
 	}
 
 	/**
 	 * Notifies the AI player that the specified opponent player made a bad move and has
-	 * been invalidated
+	 * been invalidated.  The AI player no longer considers its moves.
 	 * 
 	 * @param playerId - the id of the invalid player
 	 */
 	public void playerInvalidated(final int playerId) {
 		log("Player " + Integer.toString(playerId) + " was invalidated :(");
-		
+
+		this.gameController.playerInvalidated(playerId);
 	}
 		
 	/**
@@ -0,0 +1,97 @@
+package Players.AIPlayer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the bytes the threads of one search allocate.  The thread running the search is
+ * counted from start to stop, and every task the search hands to other threads is counted
+ * while it runs, each thread reading its own allocation counter, so that threads not
+ * working for the search are left out.  Tasks still running when the count is read, such as
+ * tasks abandoned when the move time budget ran out, are not counted.
+ *
+ * Allocations are only counted on virtual machines which count the bytes each thread
+ * allocates.
+ */
+class AllocationCounter {
+    /**
+     * Count of the bytes allocated on virtual machines which do not count them per thread
+     */
+    static final long NOT_COUNTED = -1;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = findThreadBean();
+
+    private final LongAdder allocatedBytes = new LongAdder();
+    private volatile Thread searchThread;
+    private long searchThreadStartBytes;
+
+    /**
+     * Starts counting the bytes the calling thread allocates, until stop is called on it
+     */
+    void start() {
+        this.searchThread = Thread.currentThread();
+        this.searchThreadStartBytes = countThreadAllocatedBytes();
+    }
+
+    /**
+     * Stops counting the bytes the thread which called start allocates
+     */
+    void stop() {
+        this.allocatedBytes.add(countThreadAllocatedBytes() - this.searchThreadStartBytes);
+        this.searchThread = null;
+    }
+
+    /**
+     * Wraps the specified task of the search, so that the bytes it allocates are counted.
+     * A task run on the thread which called start is already counted with that thread.
+     *
+     * @param task - task to be counted
+     *
+     * @return task running the specified task and counting the bytes it allocates
+     */
+    <T> Callable<T> count(final Callable<T> task) {
+        return () -> {
+            if(Thread.currentThread() == this.searchThread) {
+                return task.call();
+            }
+
+            final long startBytes = countThreadAllocatedBytes();
+
+            try {
+                return task.call();
+            } finally {
+                this.allocatedBytes.add(countThreadAllocatedBytes() - startBytes);
+            }
+        };
+    }
+
+    /**
+     * Gets the number of bytes counted so far
+     *
+     * @return number of bytes allocated by the counted threads and tasks, or NOT_COUNTED if
+     * the virtual machine does not count the bytes each thread allocates
+     */
+    long getAllocatedBytes() {
+        return THREAD_BEAN != null ? this.allocatedBytes.sum() : NOT_COUNTED;
+    }
+
+    private static long countThreadAllocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean findThreadBean() {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        if(!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean)threadBean;
+
+        //Counting can be switched off at runtime, in which case every thread reports -1
+        return allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled() ?
+                allocationBean : null;
+    }
+}
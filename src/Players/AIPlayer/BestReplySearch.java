@@ -0,0 +1,133 @@
+package Players.AIPlayer;
+
+/**
+ * Best-reply alpha-beta search for games of more than two players: the root player's plies
+ * alternate with opponent plies in which only the opponent with the strongest reply moves,
+ * the other opponents passing.  Every opponent is considered at every opponent ply, while
+ * the root player moves every other ply instead of once per round, which lets the search
+ * look further ahead than a paranoid search of the same depth.
+ *
+ * Opponent plies search the moves of all opponents together, so they are keyed in the
+ * transposition table by the board hash alone, and root player plies by the board hash
+ * combined with the root player's key.
+ */
+class BestReplySearch extends TreeSearch {
+    /**
+     * Initializes the BestReplySearch with the specified parameters
+     *
+     * @param rootPlayerId - id of the player searching for a move
+     * @param nextPlayerIds - id of the player moving after each player, indexed by player id
+     * @param evaluation - static evaluation of the positions at the search horizon
+     * @param transpositionTable - transposition table shared by all search threads
+     * @param moveSearch - state of the search for the current move
+     * @param maxDepth - largest depth, in plies, that will be searched
+     */
+    BestReplySearch(final int rootPlayerId,
+                    final int[] nextPlayerIds,
+                    final Evaluation evaluation,
+                    final TranspositionTable transpositionTable,
+                    final MoveSearch moveSearch,
+                    final int maxDepth) {
+        super(rootPlayerId, nextPlayerIds, evaluation, transpositionTable, moveSearch, maxDepth);
+    }
+
+    @Override
+    int scoreRootMove(final SearchBoard searchBoard, final int rootMove, final int depth, final int alpha) {
+        final int score = scoreMove(searchBoard, rootMove, depth, 0, alpha, INFINITE_SCORE);
+
+        updatePrincipalVariation(0, rootMove);
+
+        return score;
+    }
+
+    private int scoreMove(final SearchBoard searchBoard, final int move, final int depth, final int ply,
+                          final int alpha, final int beta) {
+        final int player = SearchMove.player(move);
+
+        makeMove(searchBoard, player, move);
+        clearPrincipalVariation(ply + 1);
+
+        final int score = searchBoard.hasPlayerWon(player) ? winScore(player, ply + 1) :
+                search(searchBoard, player != this.rootPlayerId, depth - 1, ply + 1, alpha, beta);
+
+        undoMove(searchBoard);
+
+        return score;
+    }
+
+    private int search(final SearchBoard searchBoard, final boolean maximizing, final int depth, final int ply,
+                       int alpha, int beta) {
+        countNode();
+
+        if(depth == 0) {
+            return evaluate(searchBoard);
+        }
+
+        final long positionKey = maximizing ?
+                searchBoard.getZobristHash() ^ Zobrist.playerToMoveKey(this.rootPlayerId) :
+                searchBoard.getZobristHash();
+        final long transpositionTableEntry = this.transpositionTable.probe(positionKey);
+        int hashMove = SearchMove.NONE;
+
+        if(transpositionTableEntry != TranspositionTable.NOT_FOUND) {
+            if(TranspositionTable.depth(transpositionTableEntry) >= depth) {
+                final int score = fromTranspositionTableScore(TranspositionTable.score(transpositionTableEntry), ply);
+                final int bound = TranspositionTable.bound(transpositionTableEntry);
+
+                if(bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                        (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+
+            hashMove = TranspositionTable.bestMove(transpositionTableEntry);
+        }
+
+        final int moveCount = maximizing ? generateOrderedMoves(searchBoard, this.rootPlayerId, ply, hashMove) :
+                generateOrderedOpponentMoves(searchBoard, ply, hashMove);
+        final int originalAlpha = alpha;
+        final int originalBeta = beta;
+        int bestScore = maximizing ? -INFINITE_SCORE : INFINITE_SCORE;
+        int bestMove = SearchMove.NONE;
+
+        for(int index = 0; index < moveCount; index++) {
+            final int move = nextMove(ply, index, moveCount);
+            final int score = scoreMove(searchBoard, move, depth, ply, alpha, beta);
+
+            //Scores of a stopped search are incomplete and must not be stored
+            if(this.moveSearch.isStopped()) {
+                return 0;
+            }
+
+            if(maximizing ? score > bestScore : score < bestScore) {
+                bestScore = score;
+                bestMove = move;
+
+                if(maximizing ? score > alpha : score < beta) {
+                    if(maximizing) {
+                        alpha = score;
+                    } else {
+                        beta = score;
+                    }
+
+                    updatePrincipalVariation(ply, move);
+                }
+            }
+
+            if(alpha >= beta) {
+                recordCutoff(move, ply, depth);
+
+                break;
+            }
+        }
+
+        final int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                bestScore >= originalBeta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+
+        this.transpositionTable.store(positionKey, depth, toTranspositionTableScore(bestScore, ply), bound,
+                bestMove);
+
+        return bestScore;
+    }
+}
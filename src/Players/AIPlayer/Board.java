@@ -8,6 +8,11 @@ import java.util.*;
  * Represents the game board
  */
 class Board {
+    /**
+     * All tile insertion locations, in a fixed order
+     */
+    static final List<Coordinate> TILE_INSERTION_LOCATIONS;
+
     private Tile[][] board;
     private Set<Coordinate> validTileInsertionLocations;
     private Coordinate invalidInsertionLocation;
@@ -15,6 +20,24 @@ class Board {
     private Map<Integer, Coordinate> playerLocations;
     private Map<Integer, Queue<TreasureType>> playerTreasures;
     private Map<TreasureType, Coordinate> treasureLocations;
+    private long zobristHash;
+
+    static {
+        final List<Coordinate> tileInsertionLocations = new ArrayList<>();
+
+        for(int index = 1; index < Coordinate.BOARD_DIM; index+=2) {
+            //North side
+            tileInsertionLocations.add(new Coordinate(0, index));
+            //South side
+            tileInsertionLocations.add(new Coordinate(Coordinate.BOARD_DIM - 1, index));
+            //East side
+            tileInsertionLocations.add(new Coordinate(index, Coordinate.BOARD_DIM - 1));
+            //West side
+            tileInsertionLocations.add(new Coordinate(index, 0));
+        }
+
+        TILE_INSERTION_LOCATIONS = Collections.unmodifiableList(tileInsertionLocations);
+    }
 
     /**
      * Initializes the Board with the specified parameters
@@ -26,12 +49,15 @@ class Board {
      * Rotations: 0 = 0 degrees, 1 = 90 degrees, 2 = 180 degrees,
      * 			  3 = 270 degrees, all clockwise
      * Treasures: -1 = no treasure, 0-23 = corresponding treasure
+     * @param extraTile - extra tile, which is part of the position hash
      */
     Board(final List<Coordinate> playerHomes,
           final List<List<Integer>> treasures,
-          final List<List<List<Integer>>> board) {
+          final List<List<List<Integer>>> board,
+          final Tile extraTile) {
         initValidTileInsertionLocations();
         initBoard(playerHomes, treasures, board);
+        this.zobristHash = computeZobristHash(extraTile);
     }
 
     /**
@@ -167,6 +193,55 @@ class Board {
         this.treasureLocations = treasureLocations;
     }
 
+    /**
+     * Gets the Zobrist hash of the position represented by this Board together with the
+     * extra tile.  It is kept up to date by tile insertions and player moves, as long as
+     * the tile returned by each tile insertion is used as the next extra tile.
+     *
+     * @return Zobrist hash of the position represented by this Board
+     */
+    long getZobristHash() {
+        return this.zobristHash;
+    }
+
+    /**
+     * Sets the Zobrist hash of the position represented by this Board
+     *
+     * @param zobristHash - Zobrist hash of the position represented by this Board
+     */
+    void setZobristHash(final long zobristHash) {
+        this.zobristHash = zobristHash;
+    }
+
+    /**
+     * Computes the Zobrist hash of the position represented by this Board together with
+     * the specified extra tile from scratch
+     *
+     * @param extraTile - extra tile of the position
+     *
+     * @return Zobrist hash of the position represented by this Board
+     */
+    long computeZobristHash(final Tile extraTile) {
+        long zobristHash = Zobrist.extraTileKey(extraTile) ^
+                Zobrist.invalidInsertionLocationKey(this.invalidInsertionLocation);
+
+        for(int rowIndex = 0; rowIndex < Coordinate.BOARD_DIM; rowIndex++) {
+            for(int columnIndex = 0; columnIndex < Coordinate.BOARD_DIM; columnIndex++) {
+                zobristHash ^= Zobrist.tileKey(rowIndex, columnIndex, this.board[rowIndex][columnIndex]);
+            }
+        }
+
+        for(Map.Entry<Integer, Coordinate> playerLocation : this.playerLocations.entrySet()) {
+            zobristHash ^= Zobrist.playerLocationKey(playerLocation.getKey(), playerLocation.getValue());
+        }
+
+        for(Map.Entry<Integer, Queue<TreasureType>> playerTreasures : this.playerTreasures.entrySet()) {
+            zobristHash ^= Zobrist.remainingTreasuresKey(playerTreasures.getKey(), playerTreasures.getValue().size());
+        }
+
+        return zobristHash;
+    }
+
     /**
      * Inserts the specified tile at the location identified by the specified coordinate
      * and returns the tile that was pushed out as as result the inserting the specified tile.
@@ -183,6 +258,7 @@ class Board {
      */
     Tile insertTile(final Tile tileToInsert, final Coordinate tileInsertionLocation) {
         final Tile shiftedOutTile;
+        final Coordinate previousInvalidInsertionLocation = this.invalidInsertionLocation;
 
         if(!this.validTileInsertionLocations.contains(tileInsertionLocation)) {
             throw new IllegalArgumentException("Specified tile insertion location is not a valid tile" +
@@ -196,6 +272,10 @@ class Board {
         final int rowToInsertTileAt = tileInsertionLocation.getRow();
         final int columnToInsertTileAt = tileInsertionLocation.getCol();
 
+        //Take the shifted line and the extra tile out of the hash, they are hashed back in after the shift
+        this.zobristHash ^= hashLine(tileInsertionLocation) ^ Zobrist.extraTileKey(tileToInsert) ^
+                Zobrist.invalidInsertionLocationKey(previousInvalidInsertionLocation);
+
         Tile tileToShiftIn = tileToInsert;
 
         //Insert on the north side of the board
@@ -209,7 +289,7 @@ class Board {
             }
 
             shiftedOutTile = tileToShiftDown;
-            this.invalidInsertionLocation = new Coordinate(Coordinate.BOARD_DIM - 1, columnToInsertTileAt);
+            this.invalidInsertionLocation = MazeBitboard.toCoordinate((Coordinate.BOARD_DIM - 1) * Coordinate.BOARD_DIM + columnToInsertTileAt);
         //Insert on the south side of the board
         } else if(rowToInsertTileAt == (Coordinate.BOARD_DIM - 1)) {
             Tile tileToShiftUp = null;
@@ -221,7 +301,7 @@ class Board {
             }
 
             shiftedOutTile = tileToShiftUp;
-            this.invalidInsertionLocation = new Coordinate(0, columnToInsertTileAt);
+            this.invalidInsertionLocation = MazeBitboard.toCoordinate(columnToInsertTileAt);
         //Insert on the west side of the board
         } else if(columnToInsertTileAt == 0) {
             Tile tileToShiftRight = null;
@@ -233,7 +313,7 @@ class Board {
             }
 
             shiftedOutTile = tileToShiftRight;
-            this.invalidInsertionLocation = new Coordinate(rowToInsertTileAt, Coordinate.BOARD_DIM - 1);
+            this.invalidInsertionLocation = MazeBitboard.toCoordinate(rowToInsertTileAt * Coordinate.BOARD_DIM + Coordinate.BOARD_DIM - 1);
         //Insert on the east side of the board
         } else {
             Tile tileToShiftLeft = null;
@@ -245,7 +325,7 @@ class Board {
             }
 
             shiftedOutTile = tileToShiftLeft;
-            this.invalidInsertionLocation = new Coordinate(rowToInsertTileAt, 0);
+            this.invalidInsertionLocation = MazeBitboard.toCoordinate(rowToInsertTileAt * Coordinate.BOARD_DIM);
         }
 
         this.validTileInsertionLocations.remove(this.invalidInsertionLocation);
@@ -255,7 +335,12 @@ class Board {
             shiftedOutTile.removeAllPlayers();
         }
 
-        updatePlayerAndTreasureLocations();
+        updatePlayerAndTreasureLocations(tileInsertionLocation, shiftedOutTile);
+
+        this.zobristHash ^= hashLine(tileInsertionLocation) ^ Zobrist.extraTileKey(shiftedOutTile) ^
+                Zobrist.invalidInsertionLocationKey(this.invalidInsertionLocation);
+
+        assert this.zobristHash == computeZobristHash(shiftedOutTile) : "Incrementally updated hash is wrong.";
 
         return shiftedOutTile;
     }
@@ -276,10 +361,16 @@ class Board {
 
         destinationTile.addPlayer(player);
 
-        if(destinationTile.getTreasureType().equals(this.playerTreasures.get(player).peek())) {
-            this.playerTreasures.get(player).poll();
+        final Queue<TreasureType> playerTreasures = this.playerTreasures.get(player);
+
+        if(destinationTile.getTreasureType().equals(playerTreasures.peek())) {
+            this.zobristHash ^= Zobrist.remainingTreasuresKey(player, playerTreasures.size());
+            playerTreasures.poll();
+            this.zobristHash ^= Zobrist.remainingTreasuresKey(player, playerTreasures.size());
         }
 
+        this.zobristHash ^= Zobrist.playerLocationKey(player, currentPlayerLocation) ^
+                Zobrist.playerLocationKey(player, destinationLocation);
         this.playerLocations.put(player, destinationLocation);
     }
 
@@ -345,18 +436,7 @@ class Board {
     }
 
     private void initValidTileInsertionLocations() {
-        this.validTileInsertionLocations = new HashSet<>();
-
-        for(int index = 1; index < Coordinate.BOARD_DIM; index+=2) {
-            //North side
-            this.validTileInsertionLocations.add(new Coordinate(0, index));
-            //South side
-            this.validTileInsertionLocations.add(new Coordinate(6, index));
-            //East side
-            this.validTileInsertionLocations.add(new Coordinate(index, 6));
-            //West side
-            this.validTileInsertionLocations.add(new Coordinate(index, 0));
-        }
+        this.validTileInsertionLocations = new HashSet<>(TILE_INSERTION_LOCATIONS);
     }
 
     private void initBoard(final List<Coordinate> playerHomes,
@@ -420,9 +500,76 @@ class Board {
         }
     }
 
-    private void updatePlayerAndTreasureLocations() {
-        this.playerLocations.clear();
-        this.treasureLocations.clear();
+    /**
+     * Computes the exclusive or of the tile keys of the row or column containing the specified
+     * tile insertion location
+     */
+    private long hashLine(final Coordinate tileInsertionLocation) {
+        final boolean column = tileInsertionLocation.getRow() == 0 ||
+                tileInsertionLocation.getRow() == Coordinate.BOARD_DIM - 1;
+        long lineHash = 0;
+
+        for(int index = 0; index < Coordinate.BOARD_DIM; index++) {
+            final int rowIndex = column ? index : tileInsertionLocation.getRow();
+            final int columnIndex = column ? tileInsertionLocation.getCol() : index;
+
+            lineHash ^= Zobrist.tileKey(rowIndex, columnIndex, this.board[rowIndex][columnIndex]);
+        }
+
+        return lineHash;
+    }
+
+    /**
+     * Updates the player and treasure locations after the row or column containing the specified
+     * tile insertion location was shifted.  Only the tiles of the shifted line can have moved, so
+     * only their entries are updated; a player pushed off the board was already moved onto the
+     * inserted tile.  The treasure on the tile that left the board is no longer on the board.
+     */
+    private void updatePlayerAndTreasureLocations(final Coordinate tileInsertionLocation,
+                                                  final Tile tileOffTheBoard) {
+        final boolean columnShifted = tileInsertionLocation.getRow() == 0 ||
+                tileInsertionLocation.getRow() == Coordinate.BOARD_DIM - 1;
+
+        for(int index = 0; index < Coordinate.BOARD_DIM; index++) {
+            final int rowIndex = columnShifted ? index : tileInsertionLocation.getRow();
+            final int columnIndex = columnShifted ? tileInsertionLocation.getCol() : index;
+            final Tile tile = this.board[rowIndex][columnIndex];
+            final Coordinate coordinate = MazeBitboard.toCoordinate(rowIndex * Coordinate.BOARD_DIM + columnIndex);
+
+            if(tile.hasPlayer()) {
+                for(int player : tile.getPlayers()) {
+                    final Coordinate previousCoordinate = this.playerLocations.put(player, coordinate);
+
+                    this.zobristHash ^= Zobrist.playerLocationKey(player, previousCoordinate) ^
+                            Zobrist.playerLocationKey(player, coordinate);
+                }
+            }
+
+            final TreasureType treasureType = tile.getTreasureType();
+
+            if(!treasureType.equals(TreasureType.NONE)) {
+                this.treasureLocations.put(treasureType, coordinate);
+            }
+        }
+
+        if(!tileOffTheBoard.getTreasureType().equals(TreasureType.NONE)) {
+            this.treasureLocations.remove(tileOffTheBoard.getTreasureType());
+        }
+
+        assert matchesFullScan() : "Incrementally updated player and treasure locations do not match the board.";
+    }
+
+    /**
+     * Checks the player and treasure locations against a full scan of the board.  Used by
+     * assertions and IncrementalUpdateCheck only, as the full scan allocates a coordinate
+     * for every tile.
+     *
+     * @return True if the player and treasure locations match the tiles of the board;
+     * false otherwise
+     */
+    boolean matchesFullScan() {
+        final Map<Integer, Coordinate> scannedPlayerLocations = new HashMap<>();
+        final Map<TreasureType, Coordinate> scannedTreasureLocations = new HashMap<>();
 
         for(int rowIndex = 0; rowIndex < Coordinate.BOARD_DIM; rowIndex++) {
             for(int columnIndex = 0; columnIndex < Coordinate.BOARD_DIM; columnIndex++) {
@@ -430,15 +577,18 @@ class Board {
                 final Coordinate coordinate = new Coordinate(rowIndex, columnIndex);
 
                 for(int player : tile.getPlayers()) {
-                    this.playerLocations.put(player, coordinate);
+                    scannedPlayerLocations.put(player, coordinate);
                 }
 
                 final TreasureType treasureType = tile.getTreasureType();
 
                 if(!treasureType.equals(TreasureType.NONE)) {
-                    this.treasureLocations.put(treasureType, coordinate);
+                    scannedTreasureLocations.put(treasureType, coordinate);
                 }
             }
         }
+
+        return scannedPlayerLocations.equals(this.playerLocations) &&
+                scannedTreasureLocations.equals(this.treasureLocations);
     }
-}
\ No newline at end of file
+}
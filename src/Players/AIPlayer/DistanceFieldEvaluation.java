@@ -0,0 +1,167 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+
+/**
+ * Evaluates players by the treasures they still have to collect and by the number of tile
+ * insertions their next goal is away, estimated by the walls a path to it has to cross.
+ * Unlike the Manhattan distance of ProgressEvaluation, the estimate accounts for the walls of
+ * the maze; the Manhattan distance from the closest cell a player can walk to is added to
+ * tell apart players as many insertions away.
+ *
+ * Planning more than one goal ahead, the legs from each goal to the one after it, home
+ * included, are added at a quarter of the weight of the leg before them, which prefers mazes
+ * keeping the following treasures close as well.
+ *
+ * The wall layers of a goal depend on the tiles on the board alone, so they are cached by
+ * the hash of the tiles and the goal cell, and shared by every pawn position and extra tile
+ * evaluated with the same tiles.  Every search thread has its own cache, which also counts
+ * its own hits and misses, so that evaluations do not contend for shared counters.
+ */
+class DistanceFieldEvaluation implements Evaluation {
+    //A tile insertion is worth about half the largest Manhattan distance on the board; in self-play this weight
+    //won clearly more games than one making every insertion outweigh any Manhattan distance
+    private static final int INSERTION_WEIGHT = Coordinate.BOARD_DIM;
+    //A treasure is worth more than the largest distance, as many insertions away as walls can be crossed; as every
+    //leg weighs a quarter of the leg before it, collecting a treasure gains more than the legs it brings forward
+    //can cost
+    private static final int TREASURE_WEIGHT = MazeBitboard.MAX_WALL_COUNT * INSERTION_WEIGHT +
+            2 * (Coordinate.BOARD_DIM - 1) + 1;
+    //Distance assumed for a player whose next treasure is on the extra tile: one insertion to bring it onto the
+    //board, and half the board across
+    private static final int EXTRA_TILE_GOAL_DISTANCE = INSERTION_WEIGHT + Coordinate.BOARD_DIM;
+    //Every leg planned after the next goal weighs a quarter of the leg before it; in self-play halving the weight
+    //won no more games than planning the next goal alone
+    private static final int LEG_WEIGHT_SHIFT = 2;
+    //Number of wall layer sets cached by every search thread
+    private static final int CACHE_SIZE = 1 << 10;
+    //Odd multiplier spreading goal cells over the bits of the cache key
+    private static final long GOAL_CELL_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final int plannedGoalCount;
+    private final ThreadLocal<WallLayerCache> caches = ThreadLocal.withInitial(WallLayerCache::new);
+
+    /**
+     * Creates a new distance field evaluation
+     *
+     * @param plannedGoalCount - number of goals planned ahead, counting the next goal
+     */
+    DistanceFieldEvaluation(final int plannedGoalCount) {
+        this.plannedGoalCount = Math.max(1, plannedGoalCount);
+    }
+
+    @Override
+    public int evaluate(final SearchBoard searchBoard, final int player) {
+        final WallLayerCache cache = this.caches.get();
+        final int remainingTreasureCount = searchBoard.getRemainingTreasureCount(player);
+        final int goalCount = Math.min(this.plannedGoalCount, remainingTreasureCount + 1);
+        int startCell = searchBoard.getPlayerCell(player);
+        long[] startLayers = null;
+        int distance = 0;
+
+        for(int goalIndex = 0; goalIndex < goalCount; goalIndex++) {
+            final int goalCell = searchBoard.getGoalCellForPlayer(player, goalIndex);
+
+            //Nothing can be planned beyond a treasure on the extra tile, as it is not known where it is inserted
+            if(goalCell < 0) {
+                distance += EXTRA_TILE_GOAL_DISTANCE >> goalIndex * LEG_WEIGHT_SHIFT;
+                break;
+            }
+
+            //Walls are crossed the same way in both directions, so a leg between two goals is measured with the wall
+            //layers of the goal it starts from: the second leg reuses the layers of the first, and every leg after it
+            //needs the layers of one more goal
+            final long[] layers = startLayers == null ? cache.findWallLayers(searchBoard, goalCell) : startLayers;
+            final int insertionCount = findInsertionCount(layers, startLayers == null ? startCell : goalCell);
+
+            if(insertionCount > 0) {
+                final int legDistance = insertionCount * INSERTION_WEIGHT + MazeBitboard.calculateManhattanDistance(
+                        searchBoard.findClosestApproachCell(startCell, goalCell), goalCell);
+
+                distance += legDistance >> goalIndex * LEG_WEIGHT_SHIFT;
+            }
+
+            if(goalIndex + 1 < goalCount) {
+                startLayers = goalIndex == 0 ? layers : cache.findWallLayers(searchBoard, goalCell);
+            }
+
+            startCell = goalCell;
+        }
+
+        return -(remainingTreasureCount * TREASURE_WEIGHT + distance);
+    }
+
+    @Override
+    public int getTreasureWeight() {
+        return TREASURE_WEIGHT;
+    }
+
+    /**
+     * Finds the number of tile insertions after which the goal cell of the specified wall
+     * layers can be reached from the specified start cell
+     */
+    private static int findInsertionCount(final long[] layers, final int startCell) {
+        final long startBit = 1L << startCell;
+        int insertionCount = 0;
+
+        while((layers[insertionCount] & startBit) == 0) {
+            insertionCount++;
+        }
+
+        return insertionCount;
+    }
+
+    /**
+     * Gets the number of evaluations on the calling thread which found the wall layers of
+     * their goal cached
+     *
+     * @return number of evaluations on the calling thread which found the wall layers of
+     * their goal cached
+     */
+    long getCacheHits() {
+        return this.caches.get().hits;
+    }
+
+    /**
+     * Gets the number of evaluations on the calling thread which calculated the wall layers
+     * of their goal
+     *
+     * @return number of evaluations on the calling thread which calculated the wall layers
+     * of their goal
+     */
+    long getCacheMisses() {
+        return this.caches.get().misses;
+    }
+
+    /**
+     * Direct-mapped cache of the wall layers of one search thread, keyed by the hash of the
+     * tiles on the board combined with the goal cell
+     */
+    private static class WallLayerCache {
+        private final long[] keys = new long[CACHE_SIZE];
+        private final long[][] layers = new long[CACHE_SIZE][MazeBitboard.MAX_WALL_COUNT + 1];
+        private final int[] layerCounts = new int[CACHE_SIZE];
+        private long hits;
+        private long misses;
+
+        /**
+         * Finds the wall layers of the specified goal cell, calculating them unless cached
+         */
+        private long[] findWallLayers(final SearchBoard searchBoard, final int goalCell) {
+            final long key = searchBoard.getMazeHash() ^ (goalCell + 1) * GOAL_CELL_MULTIPLIER;
+            final int index = (int)(key ^ (key >>> 32)) & (CACHE_SIZE - 1);
+            final long[] cachedLayers = this.layers[index];
+
+            //Empty entries have no layers, so a key of zero can not be mistaken for a cached entry
+            if(this.keys[index] == key && this.layerCounts[index] > 0) {
+                this.hits++;
+            } else {
+                this.misses++;
+                this.keys[index] = key;
+                this.layerCounts[index] = searchBoard.getMazeBitboard().calculateWallLayers(goalCell, cachedLayers);
+            }
+
+            return cachedLayers;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package Players.AIPlayer;
+
+/**
+ * Static evaluation of search positions, scoring how well a player is doing on its own.
+ * Searches combine the scores of the players into the score of a position.
+ */
+interface Evaluation {
+    /**
+     * Evaluates the progress of the specified player in the specified position
+     *
+     * @param searchBoard - search board of the position
+     * @param player - player whose progress is to be evaluated
+     *
+     * @return progress of the specified player, higher being better; it has to stay far
+     * below TreeSearch.WIN_SCORE in absolute value
+     */
+    int evaluate(SearchBoard searchBoard, int player);
+
+    /**
+     * Gets the difference in progress which one collected treasure makes, the unit in which
+     * differences between the scores of players are compared
+     *
+     * @return progress a player gains by collecting a treasure
+     */
+    int getTreasureWeight();
+}
@@ -0,0 +1,136 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+
+/**
+ * Batch of bit-parallel flood fills on several mazes at once.  The connections of the mazes
+ * are laid out side by side in arrays, and every pass of the fill loop advances each
+ * unfinished flood fill of the batch by one step, so that the independent fills overlap
+ * instead of running one after another.  Fills which stopped growing drop out of the loop.
+ *
+ * Fills are added to the batch and then run together; fills added after a run are run by
+ * the next one.  A FloodFillBatch is reused for every batch of its owner, so every search
+ * thread needs its own instance.
+ */
+class FloodFillBatch {
+    private final long[] connectedToNorth;
+    private final long[] connectedToEast;
+    private final long[] connectedToSouth;
+    private final long[] connectedToWest;
+    private final long[] openCells;
+    private final int[] fillMazes;
+    private final long[] fillCells;
+    private final int[] unfinishedFills;
+    private int mazeCount;
+    private int fillCount;
+    private int firstPendingFill;
+
+    /**
+     * Initializes the FloodFillBatch with room for the specified numbers of mazes and fills
+     *
+     * @param maxMazeCount - largest number of mazes in a batch
+     * @param maxFillCount - largest number of flood fills in a batch
+     */
+    FloodFillBatch(final int maxMazeCount, final int maxFillCount) {
+        this.connectedToNorth = new long[maxMazeCount];
+        this.connectedToEast = new long[maxMazeCount];
+        this.connectedToSouth = new long[maxMazeCount];
+        this.connectedToWest = new long[maxMazeCount];
+        this.openCells = new long[maxMazeCount];
+        this.fillMazes = new int[maxFillCount];
+        this.fillCells = new long[maxFillCount];
+        this.unfinishedFills = new int[maxFillCount];
+    }
+
+    /**
+     * Removes all mazes and fills from the batch
+     */
+    void clear() {
+        this.mazeCount = 0;
+        this.fillCount = 0;
+        this.firstPendingFill = 0;
+    }
+
+    /**
+     * Adds a maze to the batch
+     *
+     * @param connectedToNorth - bitmask of the cells connected to their northern neighbour
+     * @param connectedToEast - bitmask of the cells connected to their eastern neighbour
+     * @param connectedToSouth - bitmask of the cells connected to their southern neighbour
+     * @param connectedToWest - bitmask of the cells connected to their western neighbour
+     * @param openCells - bitmask of the cells the fills of the maze may enter
+     *
+     * @return index of the maze in the batch
+     */
+    int addMaze(final long connectedToNorth, final long connectedToEast, final long connectedToSouth,
+                final long connectedToWest, final long openCells) {
+        this.connectedToNorth[this.mazeCount] = connectedToNorth;
+        this.connectedToEast[this.mazeCount] = connectedToEast;
+        this.connectedToSouth[this.mazeCount] = connectedToSouth;
+        this.connectedToWest[this.mazeCount] = connectedToWest;
+        this.openCells[this.mazeCount] = openCells;
+
+        return this.mazeCount++;
+    }
+
+    /**
+     * Adds a flood fill of the specified maze from the specified cell to the batch
+     *
+     * @param maze - index of the maze in the batch
+     * @param startCell - cell the fill starts at
+     *
+     * @return index of the fill in the batch
+     */
+    int addFill(final int maze, final int startCell) {
+        this.fillMazes[this.fillCount] = maze;
+        this.fillCells[this.fillCount] = 1L << startCell;
+
+        return this.fillCount++;
+    }
+
+    /**
+     * Runs every fill added since the last run until none of them grows any more
+     */
+    void run() {
+        int unfinishedFillCount = 0;
+
+        for(int fill = this.firstPendingFill; fill < this.fillCount; fill++) {
+            this.unfinishedFills[unfinishedFillCount++] = fill;
+        }
+
+        while(unfinishedFillCount > 0) {
+            int remainingFillCount = 0;
+
+            for(int index = 0; index < unfinishedFillCount; index++) {
+                final int fill = this.unfinishedFills[index];
+                final int maze = this.fillMazes[fill];
+                final long cells = this.fillCells[fill];
+                final long neighbourCells = ((cells & this.connectedToNorth[maze]) >>> Coordinate.BOARD_DIM) |
+                        ((cells & this.connectedToSouth[maze]) << Coordinate.BOARD_DIM) |
+                        ((cells & this.connectedToEast[maze]) << 1) |
+                        ((cells & this.connectedToWest[maze]) >>> 1);
+                final long filledCells = cells | (neighbourCells & this.openCells[maze]);
+
+                if(filledCells != cells) {
+                    this.fillCells[fill] = filledCells;
+                    this.unfinishedFills[remainingFillCount++] = fill;
+                }
+            }
+
+            unfinishedFillCount = remainingFillCount;
+        }
+
+        this.firstPendingFill = this.fillCount;
+    }
+
+    /**
+     * Gets the cells reached by the specified fill in the last run
+     *
+     * @param fill - index of the fill in the batch
+     *
+     * @return bitmask of the cells reached by the fill, including its start cell
+     */
+    long getReachedCells(final int fill) {
+        return this.fillCells[fill];
+    }
+}
@@ -1,18 +1,47 @@
 package Players.AIPlayer;
 
+import Engine.Config;
+import Interface.CancellationToken;
 import Interface.Coordinate;
 import Interface.PlayerMove;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents game controller
  */
 class GameController {
     private int playerId;
-    private int nextOpponentPlayerId;
+    private int[] nextPlayerIds;
     private Board board;
     private Tile extraTile;
+    private Random random;
+    private Random ponderRandom;
+    private ForkJoinPool searchPool;
+    private TranspositionTable transpositionTable;
+    private Evaluation evaluation;
+    private ThreadLocal<SearchArena> searchArenas;
+    private SearchAlgorithm searchAlgorithm;
+    private double monteCarloExploration;
+    private int monteCarloRolloutDepth;
+    private Ponderer ponderer;
+    private int[][] history = TreeSearch.createHistory();
+    private List<MonteCarloTreeSearch.Node> monteCarloRoots = new ArrayList<>();
+    private int maxSearchDepth;
+    private long moveTimeBudget;
+    private boolean lastSearchComplete;
+    private boolean lastPonderHit;
+    private int lastSearchDepth;
+    private int lastDecisionDepth;
+    private long lastNodeCount;
+    private long lastDuplicateMoveCount;
+    private long lastSimulationCount;
+    private long lastReusedSimulationCount;
+    private long lastSearchTime;
+    private long lastAllocatedBytes;
+    private int[] lastPrincipalVariation = new int[0];
 
     /**
      * Initializes the GameController with the specified parameters
@@ -26,127 +55,92 @@ class GameController {
      *  	      3 = 270 degrees, all clockwise
      * Treasures: -1 = no treasure, 0-23 = corresponding treasure
      * @param extraTile - contains [Extra Tile ID, Treasure]
+     * @param config - client configuration; SEED makes the search reproducible,
+     * AI_SEARCH_THREADS sizes the search thread pool, AI_TRANSPOSITION_TABLE_SIZE caps
+     * the memory of the transposition table, AI_SEARCH_DEPTH limits the search depth,
+     * AI_MCTS_EXPLORATION and AI_MCTS_ROLLOUT_DEPTH tune the Monte Carlo tree search,
+     * AI_PONDER enables the alpha-beta search on the opponents' time, AI_EVALUATION selects
+     * the evaluation of search positions and PLAYER_MOVE_LIMIT minus AI_MOVE_TIME_MARGIN is
+     * the time budget of each move
+     * @param searchAlgorithm - search algorithm the moves are chosen with
      */
     GameController(final int playerId,
                    final List<Coordinate> playerHomes,
                    final List<List<Integer>> treasures,
                    final List<List<List<Integer>>> board,
-                   final List<Integer> extraTile) {
+                   final List<Integer> extraTile,
+                   final Config config,
+                   final SearchAlgorithm searchAlgorithm) {
         this.playerId = playerId;
-        this.nextOpponentPlayerId = this.playerId % playerHomes.size() + 1;
-        this.board = new Board(playerHomes, treasures, board);
+        this.nextPlayerIds = new int[playerHomes.size() + 1];
+
+        for(int player = 1; player <= playerHomes.size(); player++) {
+            this.nextPlayerIds[player] = player % playerHomes.size() + 1;
+        }
+
         this.extraTile = new Tile(MazePathType.fromId(extraTile.get(0)),
                                   TreasureType.fromId(extraTile.get(1)));
+        this.board = new Board(playerHomes, treasures, board, this.extraTile);
+        this.random = config.getSeed() != 0 ? new Random(config.getSeed() * 31L + playerId) : new Random();
+        this.ponderRandom = new Random(this.random.nextLong());
+
+        final int searchThreads = config.getAiSearchThreads() > 0 ? config.getAiSearchThreads() :
+                Runtime.getRuntime().availableProcessors();
+
+        //A single search thread searches the root moves on the calling thread
+        this.searchPool = searchThreads > 1 ? new ForkJoinPool(searchThreads) : null;
+        this.transpositionTable = new TranspositionTable(config.getAiTranspositionTableSize());
+        this.evaluation = createEvaluation(config.getAiEvaluation(), config.getAiPlannedGoals());
+        this.maxSearchDepth = Math.max(1, config.getAiSearchDepth());
+        //Search threads keep their search board and tree searches from one move to the next
+        this.searchArenas = ThreadLocal.withInitial(() -> new SearchArena(playerId, this.evaluation,
+                this.transpositionTable, this.maxSearchDepth));
+        this.searchAlgorithm = searchAlgorithm;
+        this.monteCarloExploration = config.getAiMctsExploration();
+        this.monteCarloRolloutDepth = config.getAiMctsRolloutDepth();
+        this.ponderer = config.isAiPonder() && searchAlgorithm == SearchAlgorithm.ALPHA_BETA ?
+                new Ponderer(playerId, this.evaluation, this::ponder) : null;
+
+        //A move time limit of 0 or less means that moves are not timed
+        this.moveTimeBudget = config.getPlayerMoveLimit() > 0 ? TimeUnit.MILLISECONDS.toNanos(Math.max(1,
+                (long)(config.getPlayerMoveLimit() * 1000) - config.getAiMoveTimeMargin())) : 0;
     }
 
     /**
-     * Generates and returns the player's next best move
+     * Generates and returns the player's next best move.  The move is found by an iterative
+     * deepening alpha-beta search, whose root moves are searched on the search thread pool when more
+     * than one search thread is configured; the resulting set of equally good moves does not
+     * depend on the number of search threads.  With two players left the search is a
+     * paranoid search, and with more a best-reply search, which considers the moves of every
+     * opponent left at every opponent ply.  The Monte Carlo tree search instead grows one
+     * tree per search thread until the move time budget runs out.
+     *
+     * If the opponent's move was predicted while pondering, the move found for it is
+     * returned at once.  Every search continues the work of the search for the previous move:
+     * the alpha-beta search keeps its transposition table and move ordering, and the Monte
+     * Carlo tree search keeps the subtrees under the moves played since.  The alpha-beta search
+     * threads reset the search board and tree search of their SearchArena instead of
+     * allocating new ones, and the bytes the search threads allocate for every search are
+     * counted.
+     *
+     * The search is an anytime search: the best move found so far is kept from the first
+     * scored root move onward, and it is returned as soon as the move time budget runs out
+     * or the specified cancellation token is cancelled.
+     *
+     * @param cancellationToken - token cancelling the search, or null if the search can
+     * only be stopped by the move time budget
      *
      * @return player's next best move
      */
-    PlayerMove findBestMove() {
-        final List<PlayerMove> bestPlayerMoves = new ArrayList<>();
-        int myBestManhattanDistanceToGoal = Integer.MAX_VALUE;
-        int nextOpponentWorstManhattanDistanceToGoal = 0;
-
-        //Consider all valid tile insertion locations
-        for(Coordinate tileInsertionLocation : this.board.getValidTileInsertionLocations()) {
-            //Consider all extra tile orientations
-            for(MazePathOrientation mazePathOrientation : MazePathOrientation.values()) {
-                //Ignore 180 and 270 degree maze path orientation for 'I' maze type path, as they are equivalent
-                //to 0 and 90 degree maze path orientations.
-                if(extraTile.getMazePathType().equals(MazePathType.I) &&
-                        (mazePathOrientation.equals(MazePathOrientation.ONE_HUNDRED_EIGHTY) ||
-                                mazePathOrientation.equals(MazePathOrientation.TWO_HUNDRED_SEVENTY))) {
-                    continue;
-                }
+    PlayerMove findBestMove(final CancellationToken cancellationToken) {
+        final MoveSearch moveSearch = new MoveSearch(this.moveTimeBudget, cancellationToken);
+        final PlayerMove bestMove = this.searchAlgorithm == SearchAlgorithm.MONTE_CARLO_TREE_SEARCH ?
+                findMonteCarloMove(moveSearch) : findAlphaBetaMove(moveSearch);
 
-                //Create a copy of the current board and extra tile and insert the extra tile in the chosen insertion
-                //location with the chosen tile orientation
-                final Board tempBoard = (Board)Cloner.deepCopy(this.board);
-                final Tile tempExtraTile = (Tile)Cloner.deepCopy(this.extraTile);
-                tempExtraTile.setMazePathOrientation(mazePathOrientation);
-                final Tile newTempExtraTile = tempBoard.insertTile(tempExtraTile, tileInsertionLocation);
-
-                //Get the next goal coordinate for the player, which is the coordinate of the tile having the player's
-                //next treasure or, if the player already collected all of its treasures, the coordinate of the  player's
-                //home tile.
-                final Coordinate myNextGoalCoordinate = getNextGoalCoordinateForPlayer(tempBoard, this.playerId, newTempExtraTile);
-
-                //Goal coordinate would be null if it is not reachable, which would happen if player's next treasure
-                //is on the resulting extra tile after extra tile insertion
-                if(myNextGoalCoordinate == null) {
-                    continue;
-                }
+        this.lastSearchComplete = !moveSearch.isStopped();
+        this.lastSearchTime = moveSearch.getElapsedTime();
 
-                final Coordinate myCurrentLocationCoordinate = tempBoard.getPlayerLocation(this.playerId);
-                final List<Coordinate> myPathTowardsNextGoal;
-
-                //If the player is already on the tile in needs to reach next, the current location is the desired path
-                //(no pawn move)
-                if(myNextGoalCoordinate.equals(myCurrentLocationCoordinate)) {
-                    List<Coordinate> path = new ArrayList<>();
-                    path.add(myCurrentLocationCoordinate);
-                    myPathTowardsNextGoal = path;
-                //If the player's goal coordinate is not the player's current location, find the best path towards the next goal
-                } else {
-                    myPathTowardsNextGoal = findBestPathTowardsNextGoalForPlayer(tempBoard, this.playerId, myNextGoalCoordinate);
-                }
-
-                int nextOpponentManhattanDistanceToGoal = -1;
-
-                //If the last coordinate in the path is the goal coordinate, that means we have a path to the goal coordinate
-                if(myPathTowardsNextGoal.get(myPathTowardsNextGoal.size() - 1).equals(myNextGoalCoordinate)) {
-                    //If this is the first path we found leading all the way to the goal coordinate
-                    if(myBestManhattanDistanceToGoal != 0) {
-                        bestPlayerMoves.clear();
-                        myBestManhattanDistanceToGoal = 0;
-                        nextOpponentWorstManhattanDistanceToGoal = 0;
-                    }
-
-                    //Calculate next opponent's best Manhattan distance to their next goal coordinate, considering all
-                    //possible insertions that the next opponent would be allowed to do after this move
-                    nextOpponentManhattanDistanceToGoal = calculateNextOpponentBestManhattanDistanceToGoal(tempBoard, newTempExtraTile);
-                //If the last coordinate in the path is not the goal coordinate, the goal coordinate is not reachable
-                } else {
-                    //Calculate Manhattan distance from the closest approach to the next goal coordinate to the goal coordinate
-                    final int myManhattanDistanceToGoal = calculateManhattanDistance(myPathTowardsNextGoal.get(myPathTowardsNextGoal.size() - 1), myNextGoalCoordinate);
-
-                    //If the Manhattan distance from the closest approach to the next goal coordinate to the goal coordinate is
-                    //better than or equal than the approach to the goal coordinate from previously considered insertions
-                    if(myManhattanDistanceToGoal <= myBestManhattanDistanceToGoal) {
-                        //If the Manhattan distance from the closest approach to the next goal coordinate to the goal coordinate is
-                        //better than the approach to the goal coordinate from previously considered insertions
-                        if(myManhattanDistanceToGoal < myBestManhattanDistanceToGoal) {
-                            bestPlayerMoves.clear();
-                            myBestManhattanDistanceToGoal = myManhattanDistanceToGoal;
-                            nextOpponentWorstManhattanDistanceToGoal = 0;
-                        }
-
-                        //Calculate next opponent's best Manhattan distance to their next goal coordinate, considering all
-                        //possible insertions that the next opponent would be allowed to do after this move
-                        nextOpponentManhattanDistanceToGoal = calculateNextOpponentBestManhattanDistanceToGoal(tempBoard, newTempExtraTile);
-                    }
-                }
-
-                //If the opponent's best Manhattan distance distance to their next goal coordinate is worse than or equal
-                //than the approach to their goal coordinate from previously considered insertions
-                if(nextOpponentManhattanDistanceToGoal >= nextOpponentWorstManhattanDistanceToGoal) {
-                    //If the opponent's best Manhattan distance distance to their next goal coordinate is worse than the
-                    //approach to their goal coordinate from previously considered insertions
-                    if(nextOpponentManhattanDistanceToGoal > nextOpponentWorstManhattanDistanceToGoal) {
-                        bestPlayerMoves.clear();
-                        nextOpponentWorstManhattanDistanceToGoal = nextOpponentManhattanDistanceToGoal;
-                    }
-
-                    //Save this move
-                    bestPlayerMoves.add(new PlayerMove(this.playerId, myPathTowardsNextGoal, tileInsertionLocation, mazePathOrientation.ordinal()));
-                }
-            }
-        }
-
-        //Return a random move from the list of equally good moves
-        return bestPlayerMoves.get(new Random().nextInt(bestPlayerMoves.size()));
+        return bestMove;
     }
 
     /**
@@ -157,6 +151,27 @@ class GameController {
      * @param playerMove - the move that was just made
      */
     void handlePlayerMove(final PlayerMove playerMove) {
+        if(this.ponderer != null) {
+            this.ponderer.stop();
+        }
+
+        //The trees of the last Monte Carlo tree search continue under the move made; trees which did not try it are
+        //dropped
+        if(!this.monteCarloRoots.isEmpty()) {
+            final int move = SearchBoard.toSearchMove(playerMove);
+            final List<MonteCarloTreeSearch.Node> roots = new ArrayList<>();
+
+            for(MonteCarloTreeSearch.Node root : this.monteCarloRoots) {
+                final MonteCarloTreeSearch.Node child = MonteCarloTreeSearch.findChild(root, move);
+
+                if(child != null) {
+                    roots.add(child);
+                }
+            }
+
+            this.monteCarloRoots = roots;
+        }
+
         //Set extra tile to the orientation specified in the specified player move
         this.extraTile.setMazePathOrientation(MazePathOrientation.fromId(playerMove.getTileRotation()));
         //Insert the extra tile at the insertion location specified in the specified player move
@@ -167,222 +182,296 @@ class GameController {
         //Move the player specified in the specified player move to the destination location specified
         //in the specified player move
         this.board.movePlayer(playerMove.getPlayerId(), playerPath.get(playerPath.size() - 1));
+
+        //Ponder while the last opponent before this player is to move
+        final int nextPlayerId = this.nextPlayerIds[playerMove.getPlayerId()];
+
+        if(this.ponderer != null && nextPlayerId != this.playerId &&
+                this.nextPlayerIds[nextPlayerId] == this.playerId) {
+            final SearchBoard searchBoard = new SearchBoard(this.board, this.extraTile);
+
+            if(!searchBoard.hasPlayerWon(playerMove.getPlayerId())) {
+                this.ponderer.start(searchBoard, nextPlayerId);
+            }
+        }
     }
 
-    private Coordinate getNextGoalCoordinateForPlayer(final Board board, final int playerId,
-                                                      final Tile extraTile) {
-        final TreasureType nextTreasureForPlayer = board.getNextTreasureForPlayer(playerId);
-
-        ///If the player collected all treasures
-        if(nextTreasureForPlayer == null) {
-            return board.getPlayerHome(playerId);
-        //If the player hasn't collected all of their treasures and the next treasure they need
-        //to collect is on the board (not on extra tile)
-        } else if(!extraTile.getTreasureType().equals(nextTreasureForPlayer)) {
-            return board.getNextTreasureLocationForPlayer(playerId);
+    /**
+     * Notifies the game controller that the specified opponent player has been invalidated.
+     * The player is taken out of the turn order, so that searches no longer consider it.  The
+     * transposition table is cleared, as its scores and bounds were found with the player
+     * still moving; the keys of root player positions are the same in either turn order.
+     *
+     * @param invalidPlayerId - the id of the invalid player
+     */
+    void playerInvalidated(final int invalidPlayerId) {
+        //Answers pondered for the old turn order are no longer valid
+        if(this.ponderer != null) {
+            this.ponderer.clear();
         }
 
-        //If the next treasure player needs to collect is on the extra tile
-        return null;
-    }
+        //So are the trees of the Monte Carlo tree search
+        this.monteCarloRoots = new ArrayList<>();
 
-    private int calculateNextOpponentBestManhattanDistanceToGoal(final Board board,
-                                                                 final Tile extraTile) {
-        int nextOpponentBestManhattanDistanceToGoal = Integer.MAX_VALUE;
-
-        for(Coordinate tileInsertionLocation : board.getValidTileInsertionLocations()) {
-            for(MazePathOrientation mazePathOrientation : MazePathOrientation.values()) {
-                //Ignore 180 and 270 degree maze path orientation for 'I' maze type path, as they
-                //are equivalent to 0 and 90 degree maze path orientations.
-                if(extraTile.getMazePathType().equals(MazePathType.I) &&
-                        (mazePathOrientation.equals(MazePathOrientation.ONE_HUNDRED_EIGHTY) ||
-                                mazePathOrientation.equals(MazePathOrientation.TWO_HUNDRED_SEVENTY))) {
-                    continue;
-                }
+        //Searches in progress keep the turn order they started with
+        final int[] nextPlayerIds = this.nextPlayerIds.clone();
 
-                //Create a copy of the current board and extra tile and insert the extra tile in the chosen insertion
-                //location with the chosen tile orientation
-                final Board tempBoard = (Board)Cloner.deepCopy(board);
-                final Tile tempExtraTile = (Tile)Cloner.deepCopy(extraTile);
-                tempExtraTile.setMazePathOrientation(mazePathOrientation);
-                final Tile newTempExtraTile = tempBoard.insertTile(tempExtraTile, tileInsertionLocation);
-
-                final Coordinate nextOpponentNextGoalCoordinate = getNextGoalCoordinateForPlayer(tempBoard,
-                        this.nextOpponentPlayerId, newTempExtraTile);
-
-                int nextOpponentManhattanDistanceToGoal = Integer.MAX_VALUE;
-
-                if(nextOpponentNextGoalCoordinate != null) {
-                    final Coordinate nextOpponentCurrentLocationCoordinate = tempBoard.getPlayerLocation(
-                            this.nextOpponentPlayerId);
-
-                    if(nextOpponentCurrentLocationCoordinate.equals(nextOpponentNextGoalCoordinate)) {
-                        return 0;
-                    } else {
-                        final List<Coordinate> nextOpponentPathTowardsNextGoal = findBestPathTowardsNextGoalForPlayer(
-                                tempBoard, this.nextOpponentPlayerId, nextOpponentNextGoalCoordinate);
-
-                        if(nextOpponentPathTowardsNextGoal.get(nextOpponentPathTowardsNextGoal.size() - 1)
-                                .equals(nextOpponentNextGoalCoordinate)) {
-                            return 0;
-                        } else {
-                            nextOpponentManhattanDistanceToGoal = calculateManhattanDistance(
-                                    nextOpponentPathTowardsNextGoal.get(nextOpponentPathTowardsNextGoal.size() - 1),
-                                    nextOpponentNextGoalCoordinate);
-                        }
-                    }
-                }
+        if(invalidPlayerId == this.playerId || invalidPlayerId < 1 || invalidPlayerId >= nextPlayerIds.length) {
+            return;
+        }
 
-                if(nextOpponentManhattanDistanceToGoal < nextOpponentBestManhattanDistanceToGoal) {
-                    nextOpponentBestManhattanDistanceToGoal = nextOpponentManhattanDistanceToGoal;
-                }
+        for(int player = 1; player < nextPlayerIds.length; player++) {
+            if(nextPlayerIds[player] == invalidPlayerId) {
+                nextPlayerIds[player] = nextPlayerIds[invalidPlayerId];
             }
         }
 
-        return nextOpponentBestManhattanDistanceToGoal;
+        this.nextPlayerIds = nextPlayerIds;
+        //The ponderer has stopped, so no search is writing to the table
+        this.transpositionTable.clear();
     }
 
-    private List<Coordinate> findBestPathTowardsNextGoalForPlayer(final Board board,
-                                                                  final int playerId,
-                                                                  final Coordinate goalCoordinate) {
-        final Map<Coordinate, Coordinate> reachableCoordinates = findAllReachableCoordinates(board,
-                null, board.getPlayerLocation(playerId), goalCoordinate, new HashMap<>());
+    /**
+     * Checks whether the last search ran to completion, rather than being stopped by the
+     * move time budget or by cancellation
+     *
+     * @return True if the last search ran to completion; false otherwise
+     */
+    boolean isLastSearchComplete() {
+        return this.lastSearchComplete;
+    }
 
-        final List<Coordinate> bestReachableCoordinates = new ArrayList<>();
+    /**
+     * Checks whether the move of the last search had been found by pondering
+     *
+     * @return True if the move of the last search had been found by pondering; false otherwise
+     */
+    boolean isLastPonderHit() {
+        return this.lastPonderHit;
+    }
 
-        if(reachableCoordinates.containsKey(goalCoordinate)) {
-            bestReachableCoordinates.add(goalCoordinate);
-        } else {
-            int bestManhattanDistanceReachableCoordinateToGoal = Integer.MAX_VALUE;
+    /**
+     * Gets the depth of the deepest iteration the last search completed
+     *
+     * @return depth, in plies, of the deepest iteration the last search completed
+     */
+    int getLastSearchDepth() {
+        return this.lastSearchDepth;
+    }
 
-            for(Coordinate reachableCoordinate : reachableCoordinates.keySet()) {
-                final int manhattanDistanceReachableCoordinateToGoal = calculateManhattanDistance(reachableCoordinate,
-                        goalCoordinate);
+    /**
+     * Gets the depth of the iteration which chose the move of the last search
+     *
+     * @return depth, in plies, of the iteration which chose the move of the last search
+     */
+    int getLastDecisionDepth() {
+        return this.lastDecisionDepth;
+    }
+
+    /**
+     * Gets the number of positions the last search searched
+     *
+     * @return number of positions the last search searched
+     */
+    long getLastNodeCount() {
+        return this.lastNodeCount;
+    }
 
-                if(manhattanDistanceReachableCoordinateToGoal <= bestManhattanDistanceReachableCoordinateToGoal) {
-                    if(manhattanDistanceReachableCoordinateToGoal < bestManhattanDistanceReachableCoordinateToGoal) {
-                        bestReachableCoordinates.clear();
-                        bestManhattanDistanceReachableCoordinateToGoal = manhattanDistanceReachableCoordinateToGoal;
-                    }
+    /**
+     * Gets the number of moves the last search left out, as they lead to the same position
+     * as another move
+     *
+     * @return number of moves the last search left out
+     */
+    long getLastDuplicateMoveCount() {
+        return this.lastDuplicateMoveCount;
+    }
 
-                    bestReachableCoordinates.add(reachableCoordinate);
-                }
-            }
-        }
+    /**
+     * Gets the number of simulations the last Monte Carlo tree search ran
+     *
+     * @return number of simulations the last Monte Carlo tree search ran
+     */
+    long getLastSimulationCount() {
+        return this.lastSimulationCount;
+    }
 
-        Stack<Coordinate> bestReversePathTowardsNextGoal = new Stack<>();
-        Coordinate pathCoordinate = bestReachableCoordinates.get(new Random().nextInt(bestReachableCoordinates.size()));
+    /**
+     * Gets the number of simulations the trees of the last search started with, kept from
+     * the search for the previous move
+     *
+     * @return number of simulations kept from the search for the previous move
+     */
+    long getLastReusedSimulationCount() {
+        return this.lastReusedSimulationCount;
+    }
 
-        do {
-            bestReversePathTowardsNextGoal.push(pathCoordinate);
-            pathCoordinate = reachableCoordinates.get(pathCoordinate);
-        }
-        while(pathCoordinate != null);
+    /**
+     * Gets the time the last search took
+     *
+     * @return time, in nanoseconds, the last search took
+     */
+    long getLastSearchTime() {
+        return this.lastSearchTime;
+    }
 
-        List<Coordinate> bestPathTowardsNextGoal = new ArrayList<>();
+    /**
+     * Gets the number of bytes the search threads allocated while working for the last
+     * search
+     *
+     * @return number of bytes allocated by the last search, or AllocationCounter.NOT_COUNTED
+     * if the move was found by pondering or the virtual machine does not count the bytes
+     * each thread allocates
+     */
+    long getLastAllocatedBytes() {
+        return this.lastAllocatedBytes;
+    }
 
-        while(!bestReversePathTowardsNextGoal.empty()) {
-            bestPathTowardsNextGoal.add(bestReversePathTowardsNextGoal.pop());
+    /**
+     * Gets the principal variation of the move of the last search, each move written as
+     * insertion location/maze path orientation->destination
+     *
+     * @return principal variation of the move of the last search, moves separated by spaces
+     */
+    String getLastPrincipalVariation() {
+        final StringBuilder principalVariation = new StringBuilder();
+
+        for(int move : this.lastPrincipalVariation) {
+            if(principalVariation.length() > 0) {
+                principalVariation.append(' ');
+            }
+
+            principalVariation.append(SearchMove.toString(move));
         }
 
-        return bestPathTowardsNextGoal;
+        return principalVariation.toString();
     }
 
-    private Map<Coordinate, Coordinate> findAllReachableCoordinates(final Board board,
-                                                                    final Coordinate arrivedFromLocationCoordinate,
-                                                                    final Coordinate currentLocationCoordinate,
-                                                                    final Coordinate nextGoalCoordinate,
-                                                                    final HashMap<Coordinate, Coordinate> reachableCoordinates) {
-        final Tile currentLocationTile = board.getTile(currentLocationCoordinate.getRow(), currentLocationCoordinate.getCol());
-
-        reachableCoordinates.put(currentLocationCoordinate, arrivedFromLocationCoordinate);
-
-        //check neighboring tile to the north
-        if(currentLocationCoordinate.getRow() > 0) {
-            final Coordinate northTileCoordinate = new Coordinate(currentLocationCoordinate.getRow() - 1,
-                    currentLocationCoordinate.getCol());
-            final Tile northTile = board.getTile(northTileCoordinate.getRow(), northTileCoordinate.getCol());
-
-            if(currentLocationTile.hasExit(CompassDirection.NORTH) && northTile.hasExit(CompassDirection.SOUTH)) {
-                if(northTileCoordinate.equals(nextGoalCoordinate)) {
-                    reachableCoordinates.put(northTileCoordinate, currentLocationCoordinate);
-
-                    return reachableCoordinates;
-                } else if(!reachableCoordinates.containsKey(northTileCoordinate)) {
-                    reachableCoordinates.putAll(findAllReachableCoordinates(board, currentLocationCoordinate,
-                            northTileCoordinate, nextGoalCoordinate, reachableCoordinates));
-                }
+    /**
+     * Gets the transposition table shared by all searches of this player
+     *
+     * @return transposition table shared by all searches of this player
+     */
+    TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    /**
+     * Gets the Zobrist hash of the current game position
+     *
+     * @return Zobrist hash of the current game position
+     */
+    long getPositionHash() {
+        return this.board.getZobristHash();
+    }
+
+    private PlayerMove findAlphaBetaMove(final MoveSearch moveSearch) {
+        if(this.ponderer != null) {
+            this.ponderer.stop();
+
+            final Ponderer.PonderedMove ponderedMove = this.ponderer.getPonderedMove(this.board.getZobristHash());
+
+            this.lastPonderHit = ponderedMove != null;
+
+            if(ponderedMove != null) {
+                this.lastSearchDepth = ponderedMove.getSearchDepth();
+                this.lastDecisionDepth = ponderedMove.getDecisionDepth();
+                this.lastNodeCount = ponderedMove.getNodeCount();
+                this.lastDuplicateMoveCount = ponderedMove.getDuplicateMoveCount();
+                this.lastPrincipalVariation = ponderedMove.getPrincipalVariation();
+                this.lastAllocatedBytes = AllocationCounter.NOT_COUNTED;
+
+                return ponderedMove.getPlayerMove();
             }
         }
 
-        if(!reachableCoordinates.containsKey(nextGoalCoordinate)) {
-            //check neighboring tile to the south
-            if (currentLocationCoordinate.getRow() < Coordinate.BOARD_DIM - 1) {
-                final Coordinate southTileCoordinate = new Coordinate(currentLocationCoordinate.getRow() + 1,
-                        currentLocationCoordinate.getCol());
-                final Tile southTile = board.getTile(currentLocationCoordinate.getRow() + 1,
-                        currentLocationCoordinate.getCol());
-
-                if (currentLocationTile.hasExit(CompassDirection.SOUTH) && southTile.hasExit(CompassDirection.NORTH)) {
-                    if (southTileCoordinate.equals(nextGoalCoordinate)) {
-                        reachableCoordinates.put(southTileCoordinate, currentLocationCoordinate);
-
-                        return reachableCoordinates;
-                    } else if (!reachableCoordinates.containsKey(southTileCoordinate)) {
-                        reachableCoordinates.putAll(findAllReachableCoordinates(board, currentLocationCoordinate,
-                                southTileCoordinate, nextGoalCoordinate, reachableCoordinates));
-                    }
-                }
-            }
+        this.transpositionTable.newSearch();
 
-            if(!reachableCoordinates.containsKey(nextGoalCoordinate)) {
-                //check neighboring tile to the west
-                if(currentLocationCoordinate.getCol() > 0) {
-                    final Coordinate westTileCoordinate = new Coordinate(currentLocationCoordinate.getRow(),
-                            currentLocationCoordinate.getCol() - 1);
-                    final Tile westTile = board.getTile(currentLocationCoordinate.getRow(),
-                            currentLocationCoordinate.getCol() - 1);
-
-                    if(currentLocationTile.hasExit(CompassDirection.WEST) && westTile.hasExit(CompassDirection.EAST)) {
-                        if(westTileCoordinate.equals(nextGoalCoordinate)) {
-                            reachableCoordinates.put(westTileCoordinate, currentLocationCoordinate);
-
-                            return reachableCoordinates;
-                        } else if(!reachableCoordinates.containsKey(westTileCoordinate)) {
-                            reachableCoordinates.putAll(findAllReachableCoordinates(board, currentLocationCoordinate,
-                                    westTileCoordinate, nextGoalCoordinate, reachableCoordinates));
-                        }
-                    }
-                }
+        final IterativeDeepeningSearch iterativeDeepeningSearch =
+                createAlphaBetaSearch(new SearchBoard(this.board, this.extraTile), moveSearch);
+        final PlayerMove bestMove = iterativeDeepeningSearch.search(this.random);
 
-                if(!reachableCoordinates.containsKey(nextGoalCoordinate)) {
-                    //check neighboring tile to the east
-                    if(currentLocationCoordinate.getCol() < Coordinate.BOARD_DIM - 1) {
-                        final Coordinate eastTileCoordinate = new Coordinate(currentLocationCoordinate.getRow(),
-                                currentLocationCoordinate.getCol() + 1);
-                        final Tile eastTile = board.getTile(currentLocationCoordinate.getRow(),
-                                currentLocationCoordinate.getCol() + 1);
-
-                        if(currentLocationTile.hasExit(CompassDirection.EAST) && eastTile.hasExit(CompassDirection.WEST)) {
-                            if(eastTileCoordinate.equals(nextGoalCoordinate)) {
-                                reachableCoordinates.put(eastTileCoordinate, currentLocationCoordinate);
-
-                                return reachableCoordinates;
-                            } else if(!reachableCoordinates.containsKey(eastTileCoordinate)) {
-                                reachableCoordinates.putAll(findAllReachableCoordinates(board, currentLocationCoordinate,
-                                        eastTileCoordinate, nextGoalCoordinate, reachableCoordinates));
-                            }
-                        }
-                    }
-                }
-            }
+        iterativeDeepeningSearch.getHistory(this.history);
+        this.lastSearchDepth = iterativeDeepeningSearch.getDepthReached();
+        this.lastDecisionDepth = iterativeDeepeningSearch.getDecisionDepth();
+        this.lastNodeCount = iterativeDeepeningSearch.getNodeCount();
+        this.lastDuplicateMoveCount = iterativeDeepeningSearch.getDuplicateMoveCount();
+        this.lastPrincipalVariation = iterativeDeepeningSearch.getPrincipalVariation();
+        this.lastAllocatedBytes = iterativeDeepeningSearch.getAllocatedBytes();
+
+        return bestMove;
+    }
+
+    /**
+     * Searches the best move in the specified position on the ponder thread
+     */
+    private Ponderer.PonderedMove ponder(final SearchBoard searchBoard, final MoveSearch moveSearch) {
+        final IterativeDeepeningSearch iterativeDeepeningSearch = createAlphaBetaSearch(searchBoard, moveSearch);
+        final PlayerMove bestMove = iterativeDeepeningSearch.search(this.ponderRandom);
+
+        return new Ponderer.PonderedMove(bestMove, iterativeDeepeningSearch.getDepthReached(),
+                iterativeDeepeningSearch.getDecisionDepth(), iterativeDeepeningSearch.getNodeCount(),
+                iterativeDeepeningSearch.getDuplicateMoveCount(), iterativeDeepeningSearch.getPrincipalVariation());
+    }
+
+    private IterativeDeepeningSearch createAlphaBetaSearch(final SearchBoard rootSearchBoard,
+                                                           final MoveSearch moveSearch) {
+        final int[] nextPlayerIds = this.nextPlayerIds;
+        final int playerCount = countPlayers(nextPlayerIds);
+        final boolean bestReplySearch = playerCount > 2;
+
+        //A best-reply search alternates plies of this player with plies of all opponents together, so the time
+        //an iteration takes grows with the number of opponents
+        final IterativeDeepeningSearch iterativeDeepeningSearch = new IterativeDeepeningSearch(this.playerId,
+                () -> this.searchArenas.get().resetSearchBoard(rootSearchBoard), moveSearch, this.searchPool,
+                this.maxSearchDepth, bestReplySearch ? 2 : playerCount, bestReplySearch ? playerCount - 1 : 1,
+                () -> this.searchArenas.get().resetTreeSearch(bestReplySearch, nextPlayerIds, moveSearch));
+
+        iterativeDeepeningSearch.seedHistory(this.history);
+
+        return iterativeDeepeningSearch;
+    }
+
+    private PlayerMove findMonteCarloMove(final MoveSearch moveSearch) {
+        final int[] nextPlayerIds = this.nextPlayerIds;
+        final MonteCarloSearch monteCarloSearch = new MonteCarloSearch(new SearchBoard(this.board, this.extraTile),
+                moveSearch, this.searchPool, this.monteCarloRoots, (searchBoard, random, root) ->
+                        new MonteCarloTreeSearch(this.playerId, nextPlayerIds, this.evaluation, moveSearch, searchBoard,
+                                random, this.monteCarloExploration, this.monteCarloRolloutDepth, root));
+        final PlayerMove bestMove = monteCarloSearch.search(this.random);
+
+        this.monteCarloRoots = monteCarloSearch.getRoots();
+        this.lastSimulationCount = monteCarloSearch.getSimulationCount();
+        this.lastReusedSimulationCount = monteCarloSearch.getReusedSimulationCount();
+        this.lastAllocatedBytes = monteCarloSearch.getAllocatedBytes();
+
+        return bestMove;
+    }
+
+    private int countPlayers(final int[] nextPlayerIds) {
+        int playerCount = 1;
+
+        for(int player = nextPlayerIds[this.playerId]; player != this.playerId; player = nextPlayerIds[player]) {
+            playerCount++;
         }
 
-        return reachableCoordinates;
+        return playerCount;
     }
 
-    private int calculateManhattanDistance(final Coordinate coordinate1, final Coordinate coordinate2) {
-        return Math.abs(coordinate2.getRow() - coordinate1.getRow()) +
-                Math.abs(coordinate2.getCol() - coordinate1.getCol());
+    /**
+     * Creates the evaluation with the specified name: PROGRESS rates the distance to the
+     * next goal by Manhattan distance and DISTANCE_FIELD by the tile insertions the specified
+     * number of goals ahead are away
+     *
+     * @throws IllegalArgumentException if there is no evaluation with the specified name
+     */
+    private static Evaluation createEvaluation(final String evaluationName, final int plannedGoalCount) {
+        if("PROGRESS".equals(evaluationName)) {
+            return new ProgressEvaluation();
+        } else if("DISTANCE_FIELD".equals(evaluationName)) {
+            return new DistanceFieldEvaluation(plannedGoalCount);
+        }
+
+        throw new IllegalArgumentException("Unknown AI evaluation " + evaluationName + ".");
     }
-}
\ No newline at end of file
+}
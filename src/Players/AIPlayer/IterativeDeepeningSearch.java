@@ -0,0 +1,416 @@
+package Players.AIPlayer;
+
+import Interface.PlayerMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Iterative deepening driver of the search for one move.  The root moves are searched one
+ * ply deeper every iteration, best moves of the previous iteration first, until the maximum
+ * depth is reached or the next iteration is not expected to finish within the move time
+ * budget.  Root moves share the best score found so far in their iteration as alpha, so that
+ * moves which can not beat it are cut off early.
+ *
+ * Every iteration orders the root moves of the next one, but the move is only chosen by
+ * iterations ending with a ply of the searching player: a search ending with an opponent's
+ * reply assumes that every move can be spoiled, and ends up only denying the opponents their
+ * goals.  The best move of every such iteration is published to the MoveSearch as soon as
+ * it is known.  An iteration stopped part way is only used if the best move of the previous
+ * iteration was scored, in which case the best scored move is at least as good.
+ */
+class IterativeDeepeningSearch {
+    //Growth of the iteration time per ply assumed before two iterations were timed
+    private static final int MIN_ITERATION_TIME_GROWTH = 2;
+
+    private final int playerId;
+    private final MoveSearch moveSearch;
+    private final ForkJoinPool searchPool;
+    private final int maxDepth;
+    private final int pliesPerRound;
+    private final int opponentsPerPly;
+    private final ThreadLocal<SearchBoard> searchBoards;
+    private final ThreadLocal<TreeSearch> treeSearches;
+    private final Queue<TreeSearch> allTreeSearches = new ConcurrentLinkedQueue<>();
+    private final MoveGenerator rootMoveGenerator = new MoveGenerator();
+    private final AllocationCounter allocationCounter = new AllocationCounter();
+    private RootMove[] rootMoves;
+    private int depthReached;
+    private int decisionDepth;
+    private int[] principalVariation = new int[0];
+    private int[][] seedHistory;
+
+    /**
+     * Initializes the IterativeDeepeningSearch with the specified parameters
+     *
+     * @param playerId - id of the player searching for a move
+     * @param searchBoardFactory - gets the search board of each search thread, holding a copy
+     * of the root position
+     * @param moveSearch - state of the search for the current move
+     * @param searchPool - thread pool the root moves are searched on, or null to search them
+     * on the calling thread
+     * @param maxDepth - largest depth, in plies, to be searched
+     * @param pliesPerRound - number of plies after which the searching player moves again
+     * @param opponentsPerPly - number of opponents whose moves are searched together at
+     * each opponent ply
+     * @param treeSearchFactory - gets the tree search of each search thread, ready for the
+     * search of this move
+     */
+    IterativeDeepeningSearch(final int playerId,
+                             final Supplier<SearchBoard> searchBoardFactory,
+                             final MoveSearch moveSearch,
+                             final ForkJoinPool searchPool,
+                             final int maxDepth,
+                             final int pliesPerRound,
+                             final int opponentsPerPly,
+                             final Supplier<TreeSearch> treeSearchFactory) {
+        this.playerId = playerId;
+        this.moveSearch = moveSearch;
+        this.searchPool = searchPool;
+        this.maxDepth = maxDepth;
+        this.pliesPerRound = pliesPerRound;
+        this.opponentsPerPly = opponentsPerPly;
+
+        //Each search thread copies the root search board once per move and then makes and reverts moves in
+        //place on its own copy
+        this.searchBoards = ThreadLocal.withInitial(searchBoardFactory);
+        this.treeSearches = ThreadLocal.withInitial(() -> {
+            final TreeSearch treeSearch = treeSearchFactory.get();
+
+            if(this.seedHistory != null) {
+                treeSearch.seedHistory(this.seedHistory);
+            }
+
+            this.allTreeSearches.add(treeSearch);
+
+            return treeSearch;
+        });
+    }
+
+    /**
+     * Searches for the best move until the maximum depth is reached or the search is stopped
+     *
+     * @param random - random number generator choosing among equally good moves
+     *
+     * @return best move found
+     */
+    PlayerMove search(final Random random) {
+        this.allocationCounter.start();
+
+        try {
+            return searchRootMoves(random);
+        } finally {
+            this.allocationCounter.stop();
+        }
+    }
+
+    private PlayerMove searchRootMoves(final Random random) {
+        final int[] moves = new int[TreeSearch.MAX_MOVE_COUNT];
+        final int moveCount = this.rootMoveGenerator.generateMoves(this.searchBoards.get(), this.playerId, moves, 0);
+        RootMove[] decisionMoves = null;
+        long previousIterationTime = 0;
+        long lastIterationTime = 0;
+
+        this.rootMoves = new RootMove[moveCount];
+
+        for(int index = 0; index < moveCount; index++) {
+            this.rootMoves[index] = new RootMove(moves[index], 0, new int[] {moves[index]});
+        }
+
+        for(int depth = 1; depth <= this.maxDepth; depth++) {
+            if(depth > 1 && !hasTimeForIteration(previousIterationTime, lastIterationTime)) {
+                break;
+            }
+
+            final long iterationStartTime = System.nanoTime();
+            final boolean decisive = isDecisive(depth);
+            final RootMove[] scoredMoves = scoreRootMoves(depth);
+
+            if(Arrays.asList(scoredMoves).contains(null)) {
+                //Root moves are searched best first, so the best move of the previous iteration is usually scored
+                if(decisive && (depth == 1 || scoredMoves[0] != null)) {
+                    RootMove bestMove = null;
+
+                    for(RootMove scoredMove : scoredMoves) {
+                        if(scoredMove != null && (bestMove == null || scoredMove.score > bestMove.score)) {
+                            bestMove = scoredMove;
+                        }
+                    }
+
+                    if(bestMove != null) {
+                        this.decisionDepth = depth;
+                        this.principalVariation = bestMove.principalVariation;
+                        this.moveSearch.publish(toPlayerMove(bestMove.move));
+
+                        return this.moveSearch.getBestPlayerMove();
+                    }
+                }
+
+                break;
+            }
+
+            //The sort is stable, so that equally scored moves keep the order of the previous iteration
+            Arrays.sort(scoredMoves, (rootMove1, rootMove2) -> Integer.compare(rootMove2.score, rootMove1.score));
+            this.rootMoves = scoredMoves;
+            this.depthReached = depth;
+
+            if(decisive) {
+                decisionMoves = scoredMoves;
+                this.decisionDepth = depth;
+                this.principalVariation = scoredMoves[0].principalVariation;
+                this.moveSearch.publish(toPlayerMove(scoredMoves[0].move));
+            }
+
+            previousIterationTime = lastIterationTime;
+            lastIterationTime = System.nanoTime() - iterationStartTime;
+        }
+
+        //Even when out of time, a move has to be returned; the first root move is as good as any other unscored one
+        if(decisionMoves == null) {
+            if(this.moveSearch.getBestPlayerMove() == null) {
+                this.moveSearch.publish(toPlayerMove(this.rootMoves[0].move));
+            }
+
+            return this.moveSearch.getBestPlayerMove();
+        }
+
+        //Return a random move from the list of equally good moves
+        int bestMoveCount = 1;
+
+        while(bestMoveCount < decisionMoves.length && decisionMoves[bestMoveCount].score == decisionMoves[0].score) {
+            bestMoveCount++;
+        }
+
+        final RootMove chosenMove = decisionMoves[random.nextInt(bestMoveCount)];
+
+        this.principalVariation = chosenMove.principalVariation;
+
+        return toPlayerMove(chosenMove.move);
+    }
+
+    /**
+     * Gets the depth of the deepest completed iteration
+     *
+     * @return depth, in plies, of the deepest completed iteration, or 0 if no iteration
+     * completed
+     */
+    int getDepthReached() {
+        return this.depthReached;
+    }
+
+    /**
+     * Gets the depth of the iteration which chose the returned move
+     *
+     * @return depth, in plies, of the iteration which chose the returned move, or 0 if no
+     * iteration did
+     */
+    int getDecisionDepth() {
+        return this.decisionDepth;
+    }
+
+    /**
+     * Gets the principal variation of the returned move: the move followed by the best
+     * replies the search expects, one per ply
+     *
+     * @return principal variation of the returned move, encoded by SearchMove, which is
+     * empty if no iteration chose the move
+     */
+    int[] getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    /**
+     * Gets the number of positions searched by all search threads
+     *
+     * @return number of positions searched by all search threads
+     */
+    long getNodeCount() {
+        long nodeCount = 0;
+
+        for(TreeSearch treeSearch : this.allTreeSearches) {
+            nodeCount += treeSearch.getNodeCount();
+        }
+
+        return nodeCount;
+    }
+
+    /**
+     * Gets the number of moves left out of the search by all search threads, as they lead to
+     * the same position as another move
+     *
+     * @return number of moves left out of the search by all search threads
+     */
+    long getDuplicateMoveCount() {
+        long duplicateMoveCount = this.rootMoveGenerator.getDuplicateMoveCount();
+
+        for(TreeSearch treeSearch : this.allTreeSearches) {
+            duplicateMoveCount += treeSearch.getDuplicateMoveCount();
+        }
+
+        return duplicateMoveCount;
+    }
+
+    /**
+     * Gets the number of bytes the search threads allocated while working for this search
+     *
+     * @return number of bytes allocated, or AllocationCounter.NOT_COUNTED if the virtual
+     * machine does not count the bytes each thread allocates
+     */
+    long getAllocatedBytes() {
+        return this.allocationCounter.getAllocatedBytes();
+    }
+
+    /**
+     * Starts the move ordering of every search thread from the specified history scores,
+     * typically those of the search for the previous move.  Must be called before search.
+     *
+     * @param seedHistory - history scores, indexed by player and move, which are only read
+     */
+    void seedHistory(final int[][] seedHistory) {
+        this.seedHistory = seedHistory;
+    }
+
+    /**
+     * Writes the history scores of the move ordering, averaged over all search threads and
+     * halved, so that the scores of earlier moves fade out, into the specified table
+     *
+     * @param history - table receiving the history scores, indexed by player and move, as
+     * created by TreeSearch.createHistory
+     */
+    void getHistory(final int[][] history) {
+        int treeSearchCount = 0;
+
+        for(int[] playerHistory : history) {
+            Arrays.fill(playerHistory, 0);
+        }
+
+        for(TreeSearch treeSearch : this.allTreeSearches) {
+            treeSearch.addHistory(history);
+            treeSearchCount++;
+        }
+
+        for(int[] playerHistory : history) {
+            for(int move = 0; move < playerHistory.length; move++) {
+                playerHistory[move] /= 2 * Math.max(1, treeSearchCount);
+            }
+        }
+    }
+
+    private boolean isDecisive(final int depth) {
+        return (depth - 1) % this.pliesPerRound == 0;
+    }
+
+    private boolean hasTimeForIteration(final long previousIterationTime, final long lastIterationTime) {
+        if(!this.moveSearch.hasDeadline()) {
+            return true;
+        }
+
+        //Every ply multiplies the iteration time by the effective branching factor, estimated from the last two
+        //iterations; before that, by the number of moves of the first opponent ply, which grows with the number of
+        //opponents searched together
+        final long iterationTimeGrowth = previousIterationTime > 0 ?
+                Math.max(MIN_ITERATION_TIME_GROWTH, lastIterationTime / previousIterationTime) :
+                Math.max(MIN_ITERATION_TIME_GROWTH, (long)this.rootMoves.length * this.opponentsPerPly);
+
+        return lastIterationTime * iterationTimeGrowth <= this.moveSearch.getRemainingTime();
+    }
+
+    /**
+     * Scores the root moves to the specified depth, in the order of the previous iteration
+     *
+     * @return scored root moves, in the order of the previous iteration, with null for the
+     * root moves not scored before the search was stopped
+     */
+    private RootMove[] scoreRootMoves(final int depth) {
+        final RootMove[] scoredMoves = new RootMove[this.rootMoves.length];
+        final AtomicInteger bestScore = new AtomicInteger(-TreeSearch.INFINITE_SCORE);
+
+        if(this.searchPool == null) {
+            for(int index = 0; index < this.rootMoves.length && !this.moveSearch.isStopped(); index++) {
+                scoredMoves[index] = scoreRootMove(this.rootMoves[index].move, depth, bestScore);
+            }
+
+            return scoredMoves;
+        }
+
+        final List<Callable<RootMove>> searchTasks = new ArrayList<>();
+
+        for(RootMove rootMove : this.rootMoves) {
+            searchTasks.add(this.allocationCounter.count(() -> this.moveSearch.isStopped() ? null :
+                    scoreRootMove(rootMove.move, depth, bestScore)));
+        }
+
+        try {
+            //Searches still running when the time budget runs out are abandoned; they notice that the search was
+            //stopped at their next node and unwind, leaving their own search board unchanged
+            final List<Future<RootMove>> searchResults = this.moveSearch.hasDeadline() ?
+                    this.searchPool.invokeAll(searchTasks, this.moveSearch.getRemainingTime(), TimeUnit.NANOSECONDS) :
+                    this.searchPool.invokeAll(searchTasks);
+
+            for(int index = 0; index < searchResults.size(); index++) {
+                final Future<RootMove> searchResult = searchResults.get(index);
+
+                if(!searchResult.isCancelled()) {
+                    scoredMoves[index] = searchResult.get();
+                }
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.moveSearch.stop();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Failed to search root move.", e.getCause());
+        }
+
+        return scoredMoves;
+    }
+
+    /**
+     * Scores the specified root move on the calling thread's search board
+     *
+     * @return scored root move, or null if the search was stopped meanwhile
+     */
+    private RootMove scoreRootMove(final int rootMove, final int depth, final AtomicInteger bestScore) {
+        final TreeSearch treeSearch = this.treeSearches.get();
+        //Moves scoring as much as the best move so far still get their exact score, so that the set of equally
+        //good moves does not depend on the order in which root moves complete
+        final int score = treeSearch.scoreRootMove(this.searchBoards.get(), rootMove, depth, bestScore.get() - 1);
+
+        if(this.moveSearch.isStopped()) {
+            return null;
+        }
+
+        bestScore.accumulateAndGet(score, Math::max);
+
+        return new RootMove(rootMove, score, treeSearch.getPrincipalVariation());
+    }
+
+    private PlayerMove toPlayerMove(final int rootMove) {
+        return this.searchBoards.get().toPlayerMove(rootMove);
+    }
+
+    /**
+     * Root move together with its score and principal variation from one iteration
+     */
+    private static class RootMove {
+        private final int move;
+        private final int score;
+        private final int[] principalVariation;
+
+        private RootMove(final int move, final int score, final int[] principalVariation) {
+            this.move = move;
+            this.score = score;
+            this.principalVariation = principalVariation;
+        }
+    }
+}
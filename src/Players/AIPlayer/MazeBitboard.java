@@ -0,0 +1,396 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the maze connectivity of the game board as bitboards.  Each of the 49 cells
+ * maps to one bit (cell index = row * BOARD_DIM + column) and every compass direction has
+ * a mask of the cells whose tile is connected to the neighbouring tile in that direction.
+ *
+ * The connected components of the maze are indexed as they are found, until the connections
+ * change: the first reachability question about a component floods it, and every later one
+ * about any of its cells, for any player or goal, is a lookup.  Most positions are asked
+ * about a few components only, so building the index this way costs less than labelling
+ * every component up front.  The index and the breadth first searches use arrays
+ * preallocated by every MazeBitboard, which is owned by a single search board and so used
+ * by a single thread at a time.
+ */
+class MazeBitboard {
+    /**
+     * Number of cells on the game board
+     */
+    static final int CELL_COUNT = Coordinate.BOARD_DIM * Coordinate.BOARD_DIM;
+
+    /**
+     * Distance of the cells which are not reachable
+     */
+    static final int UNREACHABLE = -1;
+
+    /**
+     * Largest number of walls a shortest path between two cells has to cross: one per step
+     */
+    static final int MAX_WALL_COUNT = 2 * (Coordinate.BOARD_DIM - 1);
+
+    /**
+     * Bitmask of all cells of the game board
+     */
+    static final long ALL_CELLS = (1L << CELL_COUNT) - 1;
+
+    private static final long FIRST_ROW = (1L << Coordinate.BOARD_DIM) - 1;
+    private static final long LAST_ROW = FIRST_ROW << (CELL_COUNT - Coordinate.BOARD_DIM);
+    private static final long FIRST_COLUMN;
+    private static final long LAST_COLUMN;
+    private static final Coordinate[] CELL_COORDINATES = new Coordinate[CELL_COUNT];
+
+    static {
+        long firstColumn = 0;
+
+        for(int rowIndex = 0; rowIndex < Coordinate.BOARD_DIM; rowIndex++) {
+            firstColumn |= 1L << (rowIndex * Coordinate.BOARD_DIM);
+        }
+
+        FIRST_COLUMN = firstColumn;
+        LAST_COLUMN = firstColumn << (Coordinate.BOARD_DIM - 1);
+
+        for(int cell = 0; cell < CELL_COUNT; cell++) {
+            CELL_COORDINATES[cell] = new Coordinate(cell / Coordinate.BOARD_DIM, cell % Coordinate.BOARD_DIM);
+        }
+    }
+
+    private long connectedToNorth;
+    private long connectedToEast;
+    private long connectedToSouth;
+    private long connectedToWest;
+    private final long[] components = new long[CELL_COUNT];
+    private int componentCount;
+    private long indexedCells;
+    private final int[] queue = new int[CELL_COUNT];
+    private final int[] parentCells = new int[CELL_COUNT];
+    private final int[] distances = new int[CELL_COUNT];
+
+    /**
+     * Initializes the MazeBitboard without any open cells
+     */
+    MazeBitboard() {
+    }
+
+    /**
+     * Sets the cells whose tiles have an exit in each compass direction
+     *
+     * @param openToNorth - bitmask of the cells whose tiles have an exit to the north
+     * @param openToEast - bitmask of the cells whose tiles have an exit to the east
+     * @param openToSouth - bitmask of the cells whose tiles have an exit to the south
+     * @param openToWest - bitmask of the cells whose tiles have an exit to the west
+     */
+    void setOpenCells(final long openToNorth, final long openToEast,
+                      final long openToSouth, final long openToWest) {
+        updateOpenCells(openToNorth, openToEast, openToSouth, openToWest, ALL_CELLS);
+    }
+
+    /**
+     * Sets the cells whose tiles have an exit in each compass direction after the tiles of
+     * the specified cells changed, such as the cells of a shifted line.  The indexed
+     * components which neither hold a changed cell nor border one keep all their connections
+     * and gain none, so they stay in the component index; only the others have to be flooded
+     * again.
+     *
+     * @param openToNorth - bitmask of the cells whose tiles have an exit to the north
+     * @param openToEast - bitmask of the cells whose tiles have an exit to the east
+     * @param openToSouth - bitmask of the cells whose tiles have an exit to the south
+     * @param openToWest - bitmask of the cells whose tiles have an exit to the west
+     * @param changedCells - bitmask of the cells whose tiles changed since the open cells were
+     * last set
+     */
+    void updateOpenCells(final long openToNorth, final long openToEast,
+                         final long openToSouth, final long openToWest, final long changedCells) {
+        final long affectedCells = findAffectedCells(changedCells);
+        int keptComponentCount = 0;
+
+        //A cell is connected to its neighbour if both tiles have an exit facing each other
+        this.connectedToNorth = openToNorth & (openToSouth << Coordinate.BOARD_DIM) & ~FIRST_ROW;
+        this.connectedToSouth = openToSouth & (openToNorth >>> Coordinate.BOARD_DIM) & ~LAST_ROW;
+        this.connectedToEast = openToEast & (openToWest >>> 1) & ~LAST_COLUMN;
+        this.connectedToWest = openToWest & (openToEast << 1) & ~FIRST_COLUMN;
+        this.indexedCells = 0;
+
+        for(int component = 0; component < this.componentCount; component++) {
+            final long componentCells = this.components[component];
+
+            if((componentCells & affectedCells) == 0) {
+                this.components[keptComponentCount++] = componentCells;
+                this.indexedCells |= componentCells;
+            }
+        }
+
+        this.componentCount = keptComponentCount;
+
+        assert areComponentsIndexedCorrectly() : "Component kept in the index after an update is wrong.";
+    }
+
+    /**
+     * Gets the cells whose connections may change when the tiles of the specified cells
+     * change: the cells themselves and their neighbours
+     *
+     * @param changedCells - bitmask of the cells whose tiles change
+     *
+     * @return bitmask of the changed cells and their neighbours
+     */
+    static long findAffectedCells(final long changedCells) {
+        return changedCells | findNeighbours(changedCells);
+    }
+
+    /**
+     * Gets the cell index of the specified coordinate
+     *
+     * @param coordinate - coordinate whose cell index is to be returned
+     *
+     * @return cell index of the specified coordinate
+     */
+    static int toCell(final Coordinate coordinate) {
+        return coordinate.getRow() * Coordinate.BOARD_DIM + coordinate.getCol();
+    }
+
+    /**
+     * Gets the coordinate of the specified cell index
+     *
+     * @param cell - cell index whose coordinate is to be returned
+     *
+     * @return coordinate of the specified cell index
+     */
+    static Coordinate toCoordinate(final int cell) {
+        return CELL_COORDINATES[cell];
+    }
+
+    /**
+     * Gets the Manhattan distance between the two specified cells
+     *
+     * @param cell1 - first cell
+     * @param cell2 - second cell
+     *
+     * @return Manhattan distance between the two specified cells
+     */
+    static int calculateManhattanDistance(final int cell1, final int cell2) {
+        return Math.abs(cell2 / Coordinate.BOARD_DIM - cell1 / Coordinate.BOARD_DIM) +
+                Math.abs(cell2 % Coordinate.BOARD_DIM - cell1 % Coordinate.BOARD_DIM);
+    }
+
+    /**
+     * Gets the set of cells reachable from the specified start cell: the connected component
+     * of its tile, looked up in the component index, or found by a bit-parallel flood fill
+     * and added to the index
+     *
+     * @param startCell - cell from which reachable cells are to be found
+     *
+     * @return bitmask of the cells reachable from the specified start cell, including
+     * the start cell
+     */
+    long findReachableCells(final int startCell) {
+        final long startBit = 1L << startCell;
+
+        if((this.indexedCells & startBit) != 0) {
+            for(int component = 0; ; component++) {
+                if((this.components[component] & startBit) != 0) {
+                    return this.components[component];
+                }
+            }
+        }
+
+        final long componentCells = floodFill(startBit);
+
+        this.components[this.componentCount++] = componentCells;
+        this.indexedCells |= componentCells;
+
+        return componentCells;
+    }
+
+    /**
+     * Checks whether a path connects the two specified cells
+     *
+     * @param cell1 - first cell
+     * @param cell2 - second cell
+     *
+     * @return True if the specified cells are connected; false otherwise
+     */
+    boolean isConnected(final int cell1, final int cell2) {
+        return (findReachableCells(cell1) & 1L << cell2) != 0;
+    }
+
+    /**
+     * Adds the maze to the specified flood fill batch, with the specified cells closed
+     *
+     * @param floodFillBatch - batch the maze is added to
+     * @param closedCells - bitmask of the cells no fill of the maze may enter
+     *
+     * @return index of the maze in the batch
+     */
+    int addToBatch(final FloodFillBatch floodFillBatch, final long closedCells) {
+        return floodFillBatch.addMaze(this.connectedToNorth, this.connectedToEast, this.connectedToSouth,
+                this.connectedToWest, ALL_CELLS & ~closedCells);
+    }
+
+    /**
+     * Divides the cells by the least number of walls a path from them to the specified goal
+     * cell has to cross, a wall being a pair of neighbouring tiles which are not connected.
+     * Every wall stands for a tile insertion which the path waits for, so the layer of a
+     * cell estimates the number of tile insertions after which the goal can be reached from
+     * it.  Layers are computed by bit-parallel flood fills, each starting from the neighbours
+     * of the cells of the previous layers.
+     *
+     * @param goalCell - cell the paths end at
+     * @param layers - array receiving the bitmask of the cells of each layer, layer k holding
+     * the cells whose paths cross k walls; it needs room for MAX_WALL_COUNT + 1 layers
+     *
+     * @return number of layers, the cells of all of them together covering the board
+     */
+    int calculateWallLayers(final int goalCell, final long[] layers) {
+        long reachedCells = findReachableCells(goalCell);
+        int layerCount = 0;
+
+        layers[layerCount++] = reachedCells;
+
+        while(reachedCells != ALL_CELLS) {
+            final long layer = floodFill(findNeighbours(reachedCells) & ~reachedCells);
+
+            layers[layerCount++] = layer;
+            reachedCells |= layer;
+        }
+
+        return layerCount;
+    }
+
+    private long floodFill(final long startCells) {
+        long reachableCells = startCells;
+        long previousReachableCells;
+
+        do {
+            previousReachableCells = reachableCells;
+            reachableCells |= expand(reachableCells);
+        } while(reachableCells != previousReachableCells);
+
+        return reachableCells;
+    }
+
+    /**
+     * Checks every component of the index against a flood fill from its lowest cell
+     */
+    private boolean areComponentsIndexedCorrectly() {
+        for(int component = 0; component < this.componentCount; component++) {
+            final long componentCells = this.components[component];
+
+            if(floodFill(componentCells & -componentCells) != componentCells) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the neighbours of the specified cell whose tiles are connected to its tile
+     *
+     * @param cell - cell whose connected neighbours are to be returned
+     *
+     * @return bitmask of the neighbouring cells connected to the specified cell
+     */
+    long findConnectedNeighbours(final int cell) {
+        return expand(1L << cell);
+    }
+
+    /**
+     * Finds a shortest path between the two specified cells.  Throws IllegalArgumentException
+     * if the destination cell is not reachable from the start cell.
+     *
+     * @param startCell - cell the path starts at
+     * @param destinationCell - cell the path ends at
+     *
+     * @return ordered list of coordinates from the start cell to the destination cell, both
+     * included
+     *
+     * @throws IllegalArgumentException if the destination cell is not reachable from the
+     * start cell
+     */
+    List<Coordinate> findPath(final int startCell, final int destinationCell) {
+        //Connections are symmetric, so searching from the destination leaves every cell linked to its successor on a
+        //shortest path to the destination, and the path can be listed from the start onward
+        search(destinationCell, startCell);
+
+        if(this.distances[startCell] == UNREACHABLE) {
+            throw new IllegalArgumentException("Destination cell " + destinationCell +
+                    " is not reachable from cell " + startCell + ".");
+        }
+
+        final List<Coordinate> path = new ArrayList<>(this.distances[startCell] + 1);
+
+        for(int pathCell = startCell; pathCell != destinationCell; pathCell = this.parentCells[pathCell]) {
+            path.add(CELL_COORDINATES[pathCell]);
+        }
+
+        path.add(CELL_COORDINATES[destinationCell]);
+
+        return path;
+    }
+
+    /**
+     * Calculates the length of the shortest path from the specified start cell to every cell.
+     * The returned array is reused and overwritten by the next search of this MazeBitboard.
+     *
+     * @param startCell - cell the paths start at
+     *
+     * @return number of steps from the start cell to each cell, indexed by cell, or
+     * UNREACHABLE for the cells not reachable from the start cell
+     */
+    int[] calculateDistances(final int startCell) {
+        search(startCell, UNREACHABLE);
+
+        return this.distances;
+    }
+
+    /**
+     * Breadth first search from the specified start cell, which stops once the specified goal
+     * cell is reached.  Fills in the distance of every cell reached and the cell each was
+     * reached from; every other cell is left UNREACHABLE.
+     */
+    private void search(final int startCell, final int goalCell) {
+        Arrays.fill(this.distances, UNREACHABLE);
+        this.distances[startCell] = 0;
+        this.parentCells[startCell] = startCell;
+        this.queue[0] = startCell;
+
+        int queueHead = 0;
+        int queueTail = 1;
+
+        while(queueHead < queueTail) {
+            final int cell = this.queue[queueHead++];
+
+            if(cell == goalCell) {
+                return;
+            }
+
+            for(long neighbours = findConnectedNeighbours(cell); neighbours != 0; neighbours &= neighbours - 1) {
+                final int neighbour = Long.numberOfTrailingZeros(neighbours);
+
+                if(this.distances[neighbour] == UNREACHABLE) {
+                    this.distances[neighbour] = this.distances[cell] + 1;
+                    this.parentCells[neighbour] = cell;
+                    this.queue[queueTail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    private static long findNeighbours(final long cells) {
+        return (cells >>> Coordinate.BOARD_DIM) | ((cells << Coordinate.BOARD_DIM) & ALL_CELLS) |
+                ((cells & ~LAST_COLUMN) << 1) | ((cells & ~FIRST_COLUMN) >>> 1);
+    }
+
+    private long expand(final long cells) {
+        return (((cells & this.connectedToNorth) >>> Coordinate.BOARD_DIM) |
+                ((cells & this.connectedToSouth) << Coordinate.BOARD_DIM) |
+                ((cells & this.connectedToEast) << 1) |
+                ((cells & this.connectedToWest) >>> 1)) & ALL_CELLS;
+    }
+}
@@ -0,0 +1,212 @@
+package Players.AIPlayer;
+
+import Interface.PlayerMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Root parallel driver of the Monte Carlo tree search for one move.  Every search thread
+ * grows an independent tree from the root position until the move time budget runs out,
+ * and the move chosen is the root move with the most simulations over all trees.  The trees
+ * may continue trees kept from the search of an earlier move.
+ */
+class MonteCarloSearch {
+    //Simulations of each tree when moves are not timed
+    private static final long UNTIMED_SIMULATION_COUNT = 20000;
+
+    private final SearchBoard rootSearchBoard;
+    private final MoveSearch moveSearch;
+    private final ForkJoinPool searchPool;
+    private final List<MonteCarloTreeSearch.Node> reusedRoots;
+    private final TreeSearchFactory treeSearchFactory;
+    private final List<MonteCarloTreeSearch.Node> roots = new ArrayList<>();
+    private final AllocationCounter allocationCounter = new AllocationCounter();
+    private long simulationCount;
+    private long reusedSimulationCount;
+
+    /**
+     * Initializes the MonteCarloSearch with the specified parameters
+     *
+     * @param rootSearchBoard - search board of the root position, which is only copied
+     * @param moveSearch - state of the search for the current move
+     * @param searchPool - thread pool growing one tree per thread, or null to grow a single
+     * tree on the calling thread
+     * @param reusedRoots - root nodes of the root position kept from earlier trees, continued
+     * by the first trees of this search
+     * @param treeSearchFactory - creates the tree search of each search thread
+     */
+    MonteCarloSearch(final SearchBoard rootSearchBoard,
+                     final MoveSearch moveSearch,
+                     final ForkJoinPool searchPool,
+                     final List<MonteCarloTreeSearch.Node> reusedRoots,
+                     final TreeSearchFactory treeSearchFactory) {
+        this.rootSearchBoard = rootSearchBoard;
+        this.moveSearch = moveSearch;
+        this.searchPool = searchPool;
+        this.reusedRoots = reusedRoots;
+        this.treeSearchFactory = treeSearchFactory;
+    }
+
+    /**
+     * Searches for the best move until the move time budget runs out or the search is
+     * stopped
+     *
+     * @param random - random number generator seeding the trees and choosing among equally
+     * good moves
+     *
+     * @return best move found
+     */
+    PlayerMove search(final Random random) {
+        this.allocationCounter.start();
+
+        try {
+            return searchTrees(random);
+        } finally {
+            this.allocationCounter.stop();
+        }
+    }
+
+    private PlayerMove searchTrees(final Random random) {
+        final int treeCount = this.searchPool != null ? this.searchPool.getParallelism() : 1;
+        final long maxSimulationCount = this.moveSearch.hasDeadline() ? Long.MAX_VALUE : UNTIMED_SIMULATION_COUNT;
+        final List<MonteCarloTreeSearch> treeSearches = new ArrayList<>();
+
+        //Trees are created on the calling thread, so that the seeds of their random number generators do not
+        //depend on thread scheduling
+        for(int tree = 0; tree < treeCount; tree++) {
+            final MonteCarloTreeSearch.Node reusedRoot = tree < this.reusedRoots.size() ?
+                    this.reusedRoots.get(tree) : null;
+
+            if(reusedRoot != null) {
+                this.reusedSimulationCount += MonteCarloTreeSearch.getVisits(reusedRoot);
+            }
+
+            treeSearches.add(this.treeSearchFactory.create(new SearchBoard(this.rootSearchBoard),
+                    new Random(random.nextLong()), reusedRoot));
+        }
+
+        final int[] rootMoves = treeSearches.get(0).getRootMoves();
+
+        //Even when out of time right away, a move has to be returned
+        this.moveSearch.publish(this.rootSearchBoard.toPlayerMove(rootMoves[0]));
+
+        if(this.searchPool == null) {
+            treeSearches.get(0).search(maxSimulationCount);
+        } else {
+            final List<Callable<Void>> searchTasks = new ArrayList<>();
+
+            for(MonteCarloTreeSearch treeSearch : treeSearches) {
+                searchTasks.add(this.allocationCounter.count(() -> {
+                    treeSearch.search(maxSimulationCount);
+
+                    return null;
+                }));
+            }
+
+            try {
+                for(Future<Void> searchResult : this.searchPool.invokeAll(searchTasks)) {
+                    searchResult.get();
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.moveSearch.stop();
+            } catch(ExecutionException e) {
+                throw new IllegalStateException("Failed to search tree.", e.getCause());
+            }
+        }
+
+        //Choose the root move with the most simulations over all trees, at random among equally good moves
+        final List<Integer> bestMoves = new ArrayList<>();
+        long bestVisits = -1;
+
+        for(int rootMove : rootMoves) {
+            long visits = 0;
+
+            for(MonteCarloTreeSearch treeSearch : treeSearches) {
+                visits += treeSearch.getRootMoveVisits(rootMove);
+            }
+
+            if(visits > bestVisits) {
+                bestMoves.clear();
+                bestVisits = visits;
+            }
+
+            if(visits == bestVisits) {
+                bestMoves.add(rootMove);
+            }
+        }
+
+        for(MonteCarloTreeSearch treeSearch : treeSearches) {
+            this.simulationCount += treeSearch.getSimulationCount();
+            this.roots.add(treeSearch.getRoot());
+        }
+
+        final int bestMove = bestMoves.get(random.nextInt(bestMoves.size()));
+        final PlayerMove bestPlayerMove = this.rootSearchBoard.toPlayerMove(bestMove);
+
+        this.moveSearch.publish(bestPlayerMove);
+
+        return bestPlayerMove;
+    }
+
+    /**
+     * Gets the number of bytes the search threads allocated while working for this search
+     *
+     * @return number of bytes allocated, or AllocationCounter.NOT_COUNTED if the virtual
+     * machine does not count the bytes each thread allocates
+     */
+    long getAllocatedBytes() {
+        return this.allocationCounter.getAllocatedBytes();
+    }
+
+    /**
+     * Gets the number of simulations run by all trees
+     *
+     * @return number of simulations run by all trees
+     */
+    long getSimulationCount() {
+        return this.simulationCount;
+    }
+
+    /**
+     * Gets the number of simulations the trees had already run when they were kept from
+     * earlier searches
+     *
+     * @return number of simulations of the reused trees before this search
+     */
+    long getReusedSimulationCount() {
+        return this.reusedSimulationCount;
+    }
+
+    /**
+     * Gets the root nodes of the trees grown by this search, to be continued by the search
+     * of a later move
+     *
+     * @return root nodes of the trees, one per tree
+     */
+    List<MonteCarloTreeSearch.Node> getRoots() {
+        return this.roots;
+    }
+
+    /**
+     * Creates the tree search of one search thread
+     */
+    interface TreeSearchFactory {
+        /**
+         * Creates the tree search of one search thread
+         *
+         * @param searchBoard - the thread's own copy of the root search board
+         * @param random - the thread's own random number generator
+         * @param root - root node kept from an earlier tree, or null to start a new tree
+         *
+         * @return tree search of the thread
+         */
+        MonteCarloTreeSearch create(SearchBoard searchBoard, Random random, MonteCarloTreeSearch.Node root);
+    }
+}
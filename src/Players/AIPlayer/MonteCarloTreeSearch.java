@@ -0,0 +1,372 @@
+package Players.AIPlayer;
+
+import Interface.PlayerMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * UCT Monte Carlo tree search on a SearchBoard.  Every simulation descends the tree by the
+ * UCB1 formula, adds one node, plays a rollout of random tile insertions followed by greedy
+ * pawn moves, and credits every node on its path with the reward of the player who made the
+ * node's move.  Players move in turn order, each maximizing its own reward, which is 1 for a
+ * win and otherwise rates the player's progress against its best placed opponent.
+ *
+ * Moves are the same as in the alpha-beta search, so the pawn move of each tile insertion is
+ * fixed.  Every search thread grows its own tree on its own search board, and the trees of
+ * all threads are combined at the root.
+ *
+ * A tree outlives the search of one move: once the moves played after it are known, the
+ * node reached by them becomes the root of the next search, with all its statistics, and the
+ * rest of the tree is dropped.  The node cap of a tree includes the nodes it started with.
+ */
+class MonteCarloTreeSearch {
+    //Largest number of nodes of one tree; once reached, simulations keep refining the existing nodes
+    private static final int MAX_NODE_COUNT = 1 << 16;
+
+    private final int rootPlayerId;
+    private final int[] nextPlayerIds;
+    private final Evaluation evaluation;
+    private final MoveSearch moveSearch;
+    private final SearchBoard searchBoard;
+    private final Random random;
+    private final double explorationConstant;
+    private final int rolloutDepth;
+    //Difference in evaluated progress at which a rollout reward is about 0.73 instead of 0.5: a lead of one treasure
+    private final double rewardScale;
+    private final Node root;
+    private final int[] moves = new int[TreeSearch.MAX_MOVE_COUNT];
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+    private final double[] progress = new double[PlayerMove.MAX_PLAYERS + 1];
+    private final double[] rewards = new double[PlayerMove.MAX_PLAYERS + 1];
+    private final List<Node> path = new ArrayList<>();
+    private int nodeCount;
+    private long simulationCount;
+
+    /**
+     * Initializes the MonteCarloTreeSearch with the specified parameters
+     *
+     * @param rootPlayerId - id of the player searching for a move
+     * @param nextPlayerIds - id of the player moving after each player, indexed by player id
+     * @param evaluation - static evaluation of the positions rollouts end in
+     * @param moveSearch - state of the search for the current move
+     * @param searchBoard - search board of the root position, owned by this search
+     * @param random - random number generator of the rollouts, owned by this search
+     * @param explorationConstant - weight of the exploration term of the UCB1 formula
+     * @param rolloutDepth - largest number of plies of a rollout
+     * @param root - root node of the root position, kept from the tree of an earlier search,
+     * or null to start a new tree
+     */
+    MonteCarloTreeSearch(final int rootPlayerId,
+                         final int[] nextPlayerIds,
+                         final Evaluation evaluation,
+                         final MoveSearch moveSearch,
+                         final SearchBoard searchBoard,
+                         final Random random,
+                         final double explorationConstant,
+                         final int rolloutDepth,
+                         final Node root) {
+        this.rootPlayerId = rootPlayerId;
+        this.nextPlayerIds = nextPlayerIds;
+        this.evaluation = evaluation;
+        this.moveSearch = moveSearch;
+        this.searchBoard = searchBoard;
+        this.random = random;
+        this.explorationConstant = explorationConstant;
+        this.rolloutDepth = rolloutDepth;
+        this.rewardScale = evaluation.getTreasureWeight();
+        this.root = root != null ? root : new Node(SearchMove.NONE, 0);
+        this.nodeCount = countNodes(this.root);
+
+        if(this.root.moves == null) {
+            expand(this.root, rootPlayerId);
+        }
+    }
+
+    /**
+     * Runs simulations until the search is stopped or the specified number of simulations
+     * was reached
+     *
+     * @param maxSimulationCount - largest number of simulations to be run
+     */
+    void search(final long maxSimulationCount) {
+        while(this.simulationCount < maxSimulationCount && !this.moveSearch.isStopped()) {
+            simulate();
+            this.simulationCount++;
+        }
+    }
+
+    /**
+     * Gets the moves of the root player.  In a new tree they are in the order of
+     * MoveGenerator.generateMoves, the same for every search of the same root position.
+     *
+     * @return moves of the root player, encoded by SearchMove
+     */
+    int[] getRootMoves() {
+        return this.root.moves.clone();
+    }
+
+    /**
+     * Gets the number of simulations which started with the specified root move
+     *
+     * @param rootMove - root move, encoded by SearchMove
+     *
+     * @return number of simulations which started with the specified root move
+     */
+    int getRootMoveVisits(final int rootMove) {
+        final Node child = findChild(this.root, rootMove);
+
+        return child != null ? child.visits : 0;
+    }
+
+    /**
+     * Gets the root node of the tree, to be kept for the search of a later move
+     *
+     * @return root node of the tree
+     */
+    Node getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Gets the node the specified move leads to from the specified node
+     *
+     * @param node - node of the tree
+     * @param move - move made in the position of the node, encoded by SearchMove
+     *
+     * @return node the specified move leads to, or null if the move was not tried in the tree
+     */
+    static Node findChild(final Node node, final int move) {
+        for(int index = 0; index < node.expandedCount; index++) {
+            if(node.children[index].move == move) {
+                return node.children[index];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the number of simulations run through the specified node
+     *
+     * @param node - node of the tree
+     *
+     * @return number of simulations run through the node
+     */
+    static int getVisits(final Node node) {
+        return node.visits;
+    }
+
+    /**
+     * Gets the number of simulations run by this search
+     *
+     * @return number of simulations run by this search
+     */
+    long getSimulationCount() {
+        return this.simulationCount;
+    }
+
+    private void simulate() {
+        Node node = this.root;
+        int player = this.rootPlayerId;
+        int winner = 0;
+
+        this.path.clear();
+        this.path.add(node);
+
+        //Selection and expansion: descend by the UCB1 formula until a node is added or the game is won
+        while(true) {
+            if(node.moves == null) {
+                if(this.nodeCount >= MAX_NODE_COUNT) {
+                    break;
+                }
+
+                expand(node, player);
+            }
+
+            final Node child;
+
+            if(node.expandedCount < node.moves.length && this.nodeCount < MAX_NODE_COUNT) {
+                child = addChild(node, player);
+            } else if(node.expandedCount > 0) {
+                child = selectChild(node);
+            } else {
+                break;
+            }
+
+            TreeSearch.makeMove(this.searchBoard, player, child.move);
+            this.path.add(child);
+
+            if(child.visits == 0 && this.searchBoard.hasPlayerWon(player)) {
+                child.winning = true;
+            }
+
+            node = child;
+
+            if(child.winning) {
+                winner = player;
+
+                break;
+            }
+
+            player = this.nextPlayerIds[player];
+
+            if(child.visits == 0) {
+                break;
+            }
+        }
+
+        final int treeMoveCount = this.path.size() - 1;
+        int rolloutMoveCount = 0;
+
+        //Rollout: random tile insertions with greedy pawn moves until a win or the rollout depth
+        while(winner == 0 && rolloutMoveCount < this.rolloutDepth) {
+            TreeSearch.makeMove(this.searchBoard, player, generateRolloutMove(player));
+            rolloutMoveCount++;
+
+            if(this.searchBoard.hasPlayerWon(player)) {
+                winner = player;
+            }
+
+            player = this.nextPlayerIds[player];
+        }
+
+        calculateRewards(winner);
+
+        for(int moveCount = treeMoveCount + rolloutMoveCount; moveCount > 0; moveCount--) {
+            TreeSearch.undoMove(this.searchBoard);
+        }
+
+        //Backpropagation: every node holds the rewards of the player who made its move
+        this.root.visits++;
+
+        for(int index = 1; index < this.path.size(); index++) {
+            final Node pathNode = this.path.get(index);
+
+            pathNode.visits++;
+            pathNode.reward += this.rewards[pathNode.player];
+        }
+    }
+
+    private static int countNodes(final Node node) {
+        int nodeCount = 1;
+
+        for(int index = 0; index < node.expandedCount; index++) {
+            nodeCount += countNodes(node.children[index]);
+        }
+
+        return nodeCount;
+    }
+
+    private void expand(final Node node, final int player) {
+        final int moveCount = this.moveGenerator.generateMoves(this.searchBoard, player, this.moves, 0);
+
+        node.moves = new int[moveCount];
+        node.children = new Node[moveCount];
+        System.arraycopy(this.moves, 0, node.moves, 0, moveCount);
+    }
+
+    private Node addChild(final Node node, final int player) {
+        //Untried moves are tried in random order; they are kept after the tried ones
+        final int index = node.expandedCount + this.random.nextInt(node.moves.length - node.expandedCount);
+        final int move = node.moves[index];
+        final Node child = new Node(move, player);
+
+        node.moves[index] = node.moves[node.expandedCount];
+        node.moves[node.expandedCount] = move;
+        node.children[node.expandedCount++] = child;
+        this.nodeCount++;
+
+        return child;
+    }
+
+    private Node selectChild(final Node node) {
+        final double logVisits = Math.log(node.visits);
+        Node bestChild = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+
+        for(int index = 0; index < node.expandedCount; index++) {
+            final Node child = node.children[index];
+            final double value = child.reward / child.visits +
+                    this.explorationConstant * Math.sqrt(logVisits / child.visits);
+
+            if(value > bestValue) {
+                bestChild = child;
+                bestValue = value;
+            }
+        }
+
+        return bestChild;
+    }
+
+    private int generateRolloutMove(final int player) {
+        int tileInsertionIndex;
+
+        do {
+            tileInsertionIndex = this.random.nextInt(Board.TILE_INSERTION_LOCATIONS.size());
+        } while(!this.searchBoard.isValidTileInsertionIndex(tileInsertionIndex));
+
+        final int mazePathOrientation = this.random.nextInt(MazePathOrientation.values().length);
+
+        this.searchBoard.insertTile(tileInsertionIndex, mazePathOrientation);
+
+        final int destinationCell = TreeSearch.findDestinationCell(this.searchBoard, player);
+
+        this.searchBoard.undo();
+
+        return SearchMove.encode(player, tileInsertionIndex, mazePathOrientation, destinationCell);
+    }
+
+    private void calculateRewards(final int winner) {
+        int player = this.rootPlayerId;
+
+        if(winner != 0) {
+            do {
+                this.rewards[player] = player == winner ? 1.0 : 0.0;
+                player = this.nextPlayerIds[player];
+            } while(player != this.rootPlayerId);
+
+            return;
+        }
+
+        do {
+            this.progress[player] = this.evaluation.evaluate(this.searchBoard, player);
+            player = this.nextPlayerIds[player];
+        } while(player != this.rootPlayerId);
+
+        //Every player is rated against its best placed opponent, on a logistic scale
+        do {
+            double bestOpponentProgress = Double.NEGATIVE_INFINITY;
+
+            for(int opponent = this.nextPlayerIds[player]; opponent != player; opponent = this.nextPlayerIds[opponent]) {
+                bestOpponentProgress = Math.max(bestOpponentProgress, this.progress[opponent]);
+            }
+
+            this.rewards[player] = bestOpponentProgress == Double.NEGATIVE_INFINITY ? 0.5 :
+                    1.0 / (1.0 + Math.exp((bestOpponentProgress - this.progress[player]) / this.rewardScale));
+            player = this.nextPlayerIds[player];
+        } while(player != this.rootPlayerId);
+    }
+
+    /**
+     * Node of the search tree: the move leading to it and the statistics of the simulations
+     * through it.  The moves of the node are generated when it is first descended through,
+     * and the tried moves come first, in the order of the children.
+     */
+    static class Node {
+        private final int move;
+        private final int player;
+        private int visits;
+        private double reward;
+        private boolean winning;
+        private int[] moves;
+        private Node[] children;
+        private int expandedCount;
+
+        private Node(final int move, final int player) {
+            this.move = move;
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+
+/**
+ * Generates the moves of positions on a SearchBoard.  Orientations of the inserted tile with
+ * the same exits as another orientation lead to the same position, so only one of them is
+ * generated; the moves left out that way are counted, as each of them saves the search of a
+ * position.  The orientations of one tile insertion share the shift of the line and the
+ * flood fills of the cells off the inserted tile, and the flood fills of all tile insertions
+ * of a position run together in one FloodFillBatch.  A tile insertion whose line does not
+ * reach the region of the pawn leaves that region as it was, so only the insertions near the
+ * pawn fill its region again.
+ *
+ * A MoveGenerator keeps the flood fills of the current position and counts the moves it left
+ * out, so every search thread needs its own instance.
+ */
+class MoveGenerator {
+    private static final int INSERTION_COUNT = Board.TILE_INSERTION_LOCATIONS.size();
+    private static final int DIRECTION_COUNT = CompassDirection.values().length;
+    private static final int ORIENTATION_COUNT = MazePathOrientation.values().length;
+    //Index of a flood fill which was not needed, as its cells are known otherwise
+    private static final int NO_FILL = -1;
+
+    /**
+     * Cell of the tile inserted at each tile insertion location
+     */
+    private static final int[] INSERTED_CELLS = new int[INSERTION_COUNT];
+
+    /**
+     * Cells whose connections may change when the line of each tile insertion location is
+     * shifted: the cells of the line and of the lines next to it
+     */
+    private static final long[] AFFECTED_CELLS = new long[INSERTION_COUNT];
+
+    /**
+     * Difference between the cell of a neighbour and the cell itself, indexed by the
+     * CompassDirection ordinal of the neighbour
+     */
+    private static final int[] NEIGHBOUR_OFFSETS = {-Coordinate.BOARD_DIM, 1, Coordinate.BOARD_DIM, -1};
+
+    /**
+     * Number of orientations of each maze path type which differ in their exits: the
+     * orientations from 0 on, up to the first which has the exits of orientation 0
+     */
+    private static final int[] DISTINCT_ORIENTATION_COUNTS = new int[MazePathType.values().length];
+
+    static {
+        for(int mazePathType = 0; mazePathType < DISTINCT_ORIENTATION_COUNTS.length; mazePathType++) {
+            int mazePathOrientationCount = 1;
+
+            while(mazePathOrientationCount < ORIENTATION_COUNT &&
+                    Tile.getExits(mazePathType, mazePathOrientationCount) != Tile.getExits(mazePathType, 0)) {
+                mazePathOrientationCount++;
+            }
+
+            DISTINCT_ORIENTATION_COUNTS[mazePathType] = mazePathOrientationCount;
+        }
+
+        for(int tileInsertionIndex = 0; tileInsertionIndex < INSERTION_COUNT; tileInsertionIndex++) {
+            INSERTED_CELLS[tileInsertionIndex] = MazeBitboard.toCell(Board.TILE_INSERTION_LOCATIONS.get(
+                    tileInsertionIndex));
+            AFFECTED_CELLS[tileInsertionIndex] = MazeBitboard.findAffectedCells(SearchBoard.getLineCells(
+                    tileInsertionIndex));
+        }
+    }
+
+    private final FloodFillBatch floodFillBatch = new FloodFillBatch(INSERTION_COUNT,
+            INSERTION_COUNT * (1 + DIRECTION_COUNT));
+    private final int[] tileInsertionIndices = new int[INSERTION_COUNT];
+    private final int[] startCells = new int[INSERTION_COUNT];
+    private final int[] goalCells = new int[INSERTION_COUNT];
+    private final int[] mazes = new int[INSERTION_COUNT];
+    private final int[] openDirections = new int[INSERTION_COUNT];
+    private final int[] startFills = new int[INSERTION_COUNT];
+    private final long[] startRegions = new long[INSERTION_COUNT];
+    private final int[] neighbourFills = new int[INSERTION_COUNT * DIRECTION_COUNT];
+    private long duplicateMoveCount;
+
+    /**
+     * Generates the moves of the specified player in the specified position, appending them
+     * to the specified moves
+     *
+     * @param searchBoard - search board of the position, left unchanged
+     * @param player - player to move
+     * @param moves - array the moves are written to, encoded by SearchMove, which has to hold
+     * at least TreeSearch.MAX_MOVE_COUNT moves after the moves already in it
+     * @param moveCount - number of moves already in the array
+     *
+     * @return number of moves in the array, including the generated moves
+     */
+    int generateMoves(final SearchBoard searchBoard, final int player, final int[] moves, int moveCount) {
+        final int mazePathType = searchBoard.getExtraTileMazePathType().ordinal();
+        final int mazePathOrientationCount = DISTINCT_ORIENTATION_COUNTS[mazePathType];
+        final long playerRegion = searchBoard.getMazeBitboard().findReachableCells(searchBoard.getPlayerCell(player));
+        int insertionCount = 0;
+
+        this.floodFillBatch.clear();
+
+        //Every line is shifted once for all orientations, which differ only in the inserted tile; the flood fills
+        //of the cells off the inserted tile are added to the batch, and run for all tile insertions together
+        for(int tileInsertionIndex = 0; tileInsertionIndex < INSERTION_COUNT; tileInsertionIndex++) {
+            if(!searchBoard.isValidTileInsertionIndex(tileInsertionIndex)) {
+                continue;
+            }
+
+            searchBoard.insertTile(tileInsertionIndex, 0);
+
+            final int insertedCell = INSERTED_CELLS[tileInsertionIndex];
+            final int startCell = searchBoard.getPlayerCell(player);
+            final int goalCell = searchBoard.getNextGoalCellForPlayer(player);
+
+            this.tileInsertionIndices[insertionCount] = tileInsertionIndex;
+            this.startCells[insertionCount] = startCell;
+            this.goalCells[insertionCount] = goalCell;
+
+            //Goal cell is -1 if the player's next treasure is on the extra tile, in which case the pawn stays
+            if(goalCell >= 0) {
+                final int maze = searchBoard.getMazeBitboard().addToBatch(this.floodFillBatch, 1L << insertedCell);
+
+                this.mazes[insertionCount] = maze;
+                this.openDirections[insertionCount] = searchBoard.findNeighboursOpenTowards(insertedCell);
+                this.startFills[insertionCount] = NO_FILL;
+
+                //A region clear of the shifted line and the lines next to it neither holds nor borders the inserted
+                //cell, so it is the region of the pawn after the insertion as well
+                if(startCell == insertedCell) {
+                    this.startRegions[insertionCount] = 1L << insertedCell;
+                } else if((playerRegion & AFFECTED_CELLS[tileInsertionIndex]) == 0) {
+                    this.startRegions[insertionCount] = playerRegion;
+                } else {
+                    this.startFills[insertionCount] = this.floodFillBatch.addFill(maze, startCell);
+                }
+            }
+
+            searchBoard.undo();
+            insertionCount++;
+        }
+
+        this.floodFillBatch.run();
+
+        //The neighbours of the inserted cell with an exit towards it are filled next, unless the pawn reaches them
+        for(int insertion = 0; insertion < insertionCount; insertion++) {
+            if(this.goalCells[insertion] < 0) {
+                continue;
+            }
+
+            final int insertedCell = INSERTED_CELLS[this.tileInsertionIndices[insertion]];
+
+            if(this.startFills[insertion] != NO_FILL) {
+                this.startRegions[insertion] = this.floodFillBatch.getReachedCells(this.startFills[insertion]);
+            }
+
+            final long startRegion = this.startRegions[insertion];
+
+            for(int directions = this.openDirections[insertion]; directions != 0; directions &= directions - 1) {
+                final int direction = Integer.numberOfTrailingZeros(directions);
+                final int neighbourCell = insertedCell + NEIGHBOUR_OFFSETS[direction];
+
+                this.neighbourFills[insertion * DIRECTION_COUNT + direction] =
+                        (startRegion & 1L << neighbourCell) != 0 ? NO_FILL :
+                                this.floodFillBatch.addFill(this.mazes[insertion], neighbourCell);
+            }
+        }
+
+        this.floodFillBatch.run();
+
+        for(int insertion = 0; insertion < insertionCount; insertion++) {
+            final int tileInsertionIndex = this.tileInsertionIndices[insertion];
+            final int startCell = this.startCells[insertion];
+            final int goalCell = this.goalCells[insertion];
+
+            for(int mazePathOrientation = 0; mazePathOrientation < mazePathOrientationCount; mazePathOrientation++) {
+                final int destinationCell = goalCell < 0 ? startCell : SearchBoard.findClosestApproachCell(
+                        findReachableCells(insertion, mazePathType, mazePathOrientation), startCell, goalCell);
+
+                assert destinationCell == findDestinationCell(searchBoard, player, tileInsertionIndex,
+                        mazePathOrientation) : "Destination cell found by the batched flood fills is wrong.";
+
+                moves[moveCount++] = SearchMove.encode(player, tileInsertionIndex, mazePathOrientation,
+                        destinationCell);
+            }
+
+            this.duplicateMoveCount += ORIENTATION_COUNT - mazePathOrientationCount;
+        }
+
+        return moveCount;
+    }
+
+    /**
+     * Gets the number of moves this MoveGenerator left out, as they lead to the same
+     * position as a generated move
+     *
+     * @return number of moves left out
+     */
+    long getDuplicateMoveCount() {
+        return this.duplicateMoveCount;
+    }
+
+    /**
+     * Starts the count of the moves left out over, for the search of another move
+     */
+    void reset() {
+        this.duplicateMoveCount = 0;
+    }
+
+    /**
+     * Finds the cells the pawn reaches after the specified tile insertion of the current
+     * position, with the inserted tile in the specified orientation: the inserted tile joins
+     * the regions of the neighbours its exits connect to, and the pawn reaches them if one
+     * of them holds the pawn
+     */
+    private long findReachableCells(final int insertion, final int mazePathType, final int mazePathOrientation) {
+        final long startRegion = this.startRegions[insertion];
+        long insertedCellRegion = 1L << INSERTED_CELLS[this.tileInsertionIndices[insertion]];
+
+        for(int directions = Tile.getExits(mazePathType, mazePathOrientation) & this.openDirections[insertion];
+            directions != 0; directions &= directions - 1) {
+            final int direction = Integer.numberOfTrailingZeros(directions);
+            final int fill = this.neighbourFills[insertion * DIRECTION_COUNT + direction];
+
+            insertedCellRegion |= fill == NO_FILL ? startRegion : this.floodFillBatch.getReachedCells(fill);
+        }
+
+        return (insertedCellRegion & 1L << this.startCells[insertion]) != 0 ? insertedCellRegion | startRegion :
+                startRegion;
+    }
+
+    /**
+     * Finds the destination cell of the specified tile insertion from scratch, inserting the
+     * tile in the specified orientation
+     */
+    private static int findDestinationCell(final SearchBoard searchBoard, final int player,
+                                           final int tileInsertionIndex, final int mazePathOrientation) {
+        searchBoard.insertTile(tileInsertionIndex, mazePathOrientation);
+
+        final int destinationCell = TreeSearch.findDestinationCell(searchBoard, player);
+
+        searchBoard.undo();
+
+        return destinationCell;
+    }
+
+    /**
+     * Gets the orientation generated in place of the specified orientation of a tile of the
+     * specified maze path type: the first orientation with the same exits
+     *
+     * @param mazePathType - ordinal of the maze path type of the tile
+     * @param mazePathOrientation - ordinal of the maze path orientation of the tile
+     *
+     * @return ordinal of the first maze path orientation with the same exits
+     */
+    static int toDistinctOrientation(final int mazePathType, final int mazePathOrientation) {
+        //Orientations are successive quarter turns, so the exits repeat with the number of distinct orientations
+        return mazePathOrientation % DISTINCT_ORIENTATION_COUNTS[mazePathType];
+    }
+}
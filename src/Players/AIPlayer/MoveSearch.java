@@ -0,0 +1,101 @@
+package Players.AIPlayer;
+
+import Interface.CancellationToken;
+import Interface.PlayerMove;
+
+/**
+ * State of the search for one move shared by its search tasks: when the search has to stop,
+ * and the best move found so far, which is published as soon as the first candidate move is
+ * scored
+ */
+class MoveSearch {
+    private final long startTime;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final CancellationToken cancellationToken;
+    private volatile boolean stopped;
+    private volatile PlayerMove bestPlayerMove;
+
+    /**
+     * Initializes the MoveSearch, starting its clock
+     *
+     * @param moveTimeBudget - time budget of the move in nanoseconds, or 0 if the move is not
+     * timed
+     * @param cancellationToken - token cancelling the search, or null if the search can only
+     * be stopped by the move time budget
+     */
+    MoveSearch(final long moveTimeBudget, final CancellationToken cancellationToken) {
+        this.startTime = System.nanoTime();
+        this.hasDeadline = moveTimeBudget > 0;
+        this.deadline = this.startTime + moveTimeBudget;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Checks whether the move is timed
+     *
+     * @return True if the move has a time budget; false otherwise
+     */
+    boolean hasDeadline() {
+        return this.hasDeadline;
+    }
+
+    /**
+     * Gets the time left until the move time budget runs out.  Only meaningful if the move
+     * has a deadline.
+     *
+     * @return remaining time in nanoseconds, which is negative once the budget has run out
+     */
+    long getRemainingTime() {
+        return this.deadline - System.nanoTime();
+    }
+
+    /**
+     * Gets the time spent on the move so far
+     *
+     * @return elapsed time in nanoseconds
+     */
+    long getElapsedTime() {
+        return System.nanoTime() - this.startTime;
+    }
+
+    /**
+     * Stops the search
+     */
+    void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Checks whether the search has to stop, because it was stopped, the move time budget ran
+     * out or the cancellation token was cancelled
+     *
+     * @return True if the search has to stop; false otherwise
+     */
+    boolean isStopped() {
+        if(!this.stopped && ((this.hasDeadline && getRemainingTime() <= 0) ||
+                (this.cancellationToken != null && this.cancellationToken.isCancelled()))) {
+            this.stopped = true;
+        }
+
+        return this.stopped;
+    }
+
+    /**
+     * Publishes the specified move as the best move found so far
+     *
+     * @param playerMove - best move found so far
+     */
+    void publish(final PlayerMove playerMove) {
+        this.bestPlayerMove = playerMove;
+    }
+
+    /**
+     * Gets the best move found so far
+     *
+     * @return best move found so far, or null if no move was published yet
+     */
+    PlayerMove getBestPlayerMove() {
+        return this.bestPlayerMove;
+    }
+}
@@ -0,0 +1,237 @@
+package Players.AIPlayer;
+
+import Interface.PlayerMove;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Searches on the opponents' time.  While the last opponent before the AI player is to move,
+ * the Ponderer predicts that opponent's most likely replies and searches the AI player's
+ * best answer to each on a background thread.  The answers are kept by the hash of the
+ * position they answer, so that a predicted reply is answered at once; the transposition
+ * entries of all pondering searches are kept as well, so that even a search after an
+ * unpredicted reply starts with the work done for the others.
+ */
+class Ponderer {
+    //Number of replies of the opponent answered, most likely first
+    private static final int PREDICTED_REPLY_COUNT = 4;
+
+    private final int playerId;
+    private final Evaluation evaluation;
+    private final BiFunction<SearchBoard, MoveSearch, PonderedMove> searchFunction;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Ponder");
+
+        thread.setDaemon(true);
+
+        return thread;
+    });
+    private final Map<Long, PonderedMove> ponderedMoves = new ConcurrentHashMap<>();
+    private volatile MoveSearch moveSearch;
+    private Future<?> ponderTask;
+
+    /**
+     * Initializes the Ponderer with the specified parameters
+     *
+     * @param playerId - id of the AI player
+     * @param evaluation - evaluation predicting the opponent's replies
+     * @param searchFunction - searches the AI player's best answer in the specified position,
+     * until the specified move search is stopped
+     */
+    Ponderer(final int playerId,
+             final Evaluation evaluation,
+             final BiFunction<SearchBoard, MoveSearch, PonderedMove> searchFunction) {
+        this.playerId = playerId;
+        this.evaluation = evaluation;
+        this.searchFunction = searchFunction;
+    }
+
+    /**
+     * Starts pondering the specified position, forgetting the answers of earlier positions
+     *
+     * @param searchBoard - search board of the position, in which the last opponent before the
+     * AI player is to move; it is owned by the Ponderer from now on
+     * @param opponent - opponent to move
+     */
+    void start(final SearchBoard searchBoard, final int opponent) {
+        stop();
+        this.ponderedMoves.clear();
+
+        final MoveSearch ponderSearch = new MoveSearch(0, null);
+
+        this.moveSearch = ponderSearch;
+        this.ponderTask = this.executor.submit(() -> ponder(searchBoard, opponent, ponderSearch));
+    }
+
+    /**
+     * Stops pondering and waits until the background search has unwound, so that the search
+     * threads are free again.  The answers found so far are kept.
+     */
+    void stop() {
+        final MoveSearch ponderSearch = this.moveSearch;
+
+        if(ponderSearch == null) {
+            return;
+        }
+
+        ponderSearch.stop();
+
+        try {
+            this.ponderTask.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Failed to ponder.", e.getCause());
+        }
+
+        this.moveSearch = null;
+        this.ponderTask = null;
+    }
+
+    /**
+     * Stops pondering and forgets every answer
+     */
+    void clear() {
+        stop();
+        this.ponderedMoves.clear();
+    }
+
+    /**
+     * Gets the answer found for the position with the specified hash
+     *
+     * @param positionHash - Zobrist hash of the position
+     *
+     * @return answer found for the position, or null if the position was not answered
+     */
+    PonderedMove getPonderedMove(final long positionHash) {
+        return this.ponderedMoves.get(positionHash);
+    }
+
+    private void ponder(final SearchBoard searchBoard, final int opponent, final MoveSearch ponderSearch) {
+        final int[] replies = predictReplies(searchBoard, opponent);
+
+        for(int reply : replies) {
+            if(ponderSearch.isStopped()) {
+                break;
+            }
+
+            TreeSearch.makeMove(searchBoard, opponent, reply);
+
+            //A reply winning the game needs no answer
+            if(!searchBoard.hasPlayerWon(opponent)) {
+                final PonderedMove ponderedMove = this.searchFunction.apply(new SearchBoard(searchBoard), ponderSearch);
+
+                //Answers of a stopped search are incomplete; their work is kept in the transposition table
+                if(!ponderSearch.isStopped()) {
+                    this.ponderedMoves.put(searchBoard.getZobristHash(), ponderedMove);
+                }
+            }
+
+            TreeSearch.undoMove(searchBoard);
+        }
+    }
+
+    /**
+     * Predicts the most likely replies of the specified opponent: the replies which make the
+     * most progress for the opponent relative to the AI player.  Rating the progress relative
+     * to the AI player tells apart the many replies making the same progress for the opponent.
+     */
+    private int[] predictReplies(final SearchBoard searchBoard, final int opponent) {
+        final int[] moves = new int[TreeSearch.MAX_MOVE_COUNT];
+        final int moveCount = new MoveGenerator().generateMoves(searchBoard, opponent, moves, 0);
+        final int[] progress = new int[moveCount];
+
+        for(int index = 0; index < moveCount; index++) {
+            TreeSearch.makeMove(searchBoard, opponent, moves[index]);
+            progress[index] = searchBoard.hasPlayerWon(opponent) ? Integer.MAX_VALUE :
+                    this.evaluation.evaluate(searchBoard, opponent) -
+                            this.evaluation.evaluate(searchBoard, this.playerId);
+            TreeSearch.undoMove(searchBoard);
+        }
+
+        final int[] replies = new int[Math.min(PREDICTED_REPLY_COUNT, moveCount)];
+
+        //Selection of the best replies, which keeps the order of generation among equally good replies
+        for(int reply = 0; reply < replies.length; reply++) {
+            int bestIndex = -1;
+
+            for(int index = 0; index < moveCount; index++) {
+                if(moves[index] != SearchMove.NONE && (bestIndex < 0 || progress[index] > progress[bestIndex])) {
+                    bestIndex = index;
+                }
+            }
+
+            replies[reply] = moves[bestIndex];
+            moves[bestIndex] = SearchMove.NONE;
+        }
+
+        return replies;
+    }
+
+    /**
+     * Answer found by pondering, with the statistics of the search which found it
+     */
+    static class PonderedMove {
+        private final PlayerMove playerMove;
+        private final int searchDepth;
+        private final int decisionDepth;
+        private final long nodeCount;
+        private final long duplicateMoveCount;
+        private final int[] principalVariation;
+
+        /**
+         * Initializes the PonderedMove with the specified parameters
+         *
+         * @param playerMove - move answering the position
+         * @param searchDepth - depth, in plies, of the deepest completed iteration
+         * @param decisionDepth - depth, in plies, of the iteration which chose the move
+         * @param nodeCount - number of positions searched
+         * @param duplicateMoveCount - number of moves left out as they lead to the same position
+         * as another move
+         * @param principalVariation - principal variation of the move, encoded by SearchMove
+         */
+        PonderedMove(final PlayerMove playerMove,
+                     final int searchDepth,
+                     final int decisionDepth,
+                     final long nodeCount,
+                     final long duplicateMoveCount,
+                     final int[] principalVariation) {
+            this.playerMove = playerMove;
+            this.searchDepth = searchDepth;
+            this.decisionDepth = decisionDepth;
+            this.nodeCount = nodeCount;
+            this.duplicateMoveCount = duplicateMoveCount;
+            this.principalVariation = principalVariation;
+        }
+
+        PlayerMove getPlayerMove() {
+            return this.playerMove;
+        }
+
+        int getSearchDepth() {
+            return this.searchDepth;
+        }
+
+        int getDecisionDepth() {
+            return this.decisionDepth;
+        }
+
+        long getNodeCount() {
+            return this.nodeCount;
+        }
+
+        long getDuplicateMoveCount() {
+            return this.duplicateMoveCount;
+        }
+
+        int[] getPrincipalVariation() {
+            return this.principalVariation;
+        }
+    }
+}
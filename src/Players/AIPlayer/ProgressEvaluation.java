@@ -0,0 +1,29 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+
+/**
+ * Evaluates players by the treasures they still have to collect and by the Manhattan
+ * distance to their next goal from the closest cell they can walk to right now
+ */
+class ProgressEvaluation implements Evaluation {
+    //A treasure is worth more than the largest Manhattan distance on the board
+    private static final int TREASURE_WEIGHT = 2 * (Coordinate.BOARD_DIM - 1) + 1;
+    //Distance assumed for a player whose next treasure is on the extra tile
+    private static final int EXTRA_TILE_GOAL_DISTANCE = Coordinate.BOARD_DIM;
+
+    @Override
+    public int evaluate(final SearchBoard searchBoard, final int player) {
+        final int nextGoalCell = searchBoard.getNextGoalCellForPlayer(player);
+        final int distanceToGoal = nextGoalCell < 0 ? EXTRA_TILE_GOAL_DISTANCE :
+                MazeBitboard.calculateManhattanDistance(searchBoard.findClosestApproachCell(
+                        searchBoard.getPlayerCell(player), nextGoalCell), nextGoalCell);
+
+        return -(searchBoard.getRemainingTreasureCount(player) * TREASURE_WEIGHT + distanceToGoal);
+    }
+
+    @Override
+    public int getTreasureWeight() {
+        return TREASURE_WEIGHT;
+    }
+}
@@ -0,0 +1,17 @@
+package Players.AIPlayer;
+
+/**
+ * Represents the search algorithm an AIPlayer chooses its moves with
+ */
+public enum SearchAlgorithm {
+    /**
+     * Iterative deepening alpha-beta search: paranoid with two players left and best-reply
+     * with more
+     */
+    ALPHA_BETA,
+
+    /**
+     * Root parallel UCT Monte Carlo tree search
+     */
+    MONTE_CARLO_TREE_SEARCH
+}
@@ -0,0 +1,91 @@
+package Players.AIPlayer;
+
+/**
+ * Objects one search thread reuses from the search for one move to the next: its copy of
+ * the root search board and its tree searches.  Rather than being allocated for every move,
+ * they are reset to the position and turn order of the next search, so that a search
+ * allocates little beyond the moves it returns.
+ *
+ * A SearchArena serves the searches of a single player and is used by a single thread,
+ * so every search thread needs its own instance.
+ */
+class SearchArena {
+    private final int rootPlayerId;
+    private final Evaluation evaluation;
+    private final TranspositionTable transpositionTable;
+    private final int maxDepth;
+    private SearchBoard searchBoard;
+    private ParanoidSearch paranoidSearch;
+    private BestReplySearch bestReplySearch;
+
+    /**
+     * Initializes the SearchArena with the specified parameters
+     *
+     * @param rootPlayerId - id of the player searching for moves
+     * @param evaluation - static evaluation of the positions at the search horizon
+     * @param transpositionTable - transposition table shared by all search threads
+     * @param maxDepth - largest depth, in plies, that will be searched
+     */
+    SearchArena(final int rootPlayerId,
+                final Evaluation evaluation,
+                final TranspositionTable transpositionTable,
+                final int maxDepth) {
+        this.rootPlayerId = rootPlayerId;
+        this.evaluation = evaluation;
+        this.transpositionTable = transpositionTable;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Gets the search board of this thread, reset to a copy of the specified root search
+     * board.  The search board is only created by the first search.
+     *
+     * @param rootSearchBoard - search board of the root position, which is only copied
+     *
+     * @return search board of this thread, holding the root position
+     */
+    SearchBoard resetSearchBoard(final SearchBoard rootSearchBoard) {
+        if(this.searchBoard == null) {
+            this.searchBoard = new SearchBoard(rootSearchBoard);
+        } else {
+            this.searchBoard.reset(rootSearchBoard);
+        }
+
+        return this.searchBoard;
+    }
+
+    /**
+     * Gets the tree search of this thread of the specified kind, reset for the search of the
+     * next move.  Each kind of tree search is only created by the first search using it.
+     *
+     * @param bestReplySearch - true for a best-reply search; false for a paranoid search
+     * @param nextPlayerIds - id of the player moving after each player, indexed by player id
+     * @param moveSearch - state of the search for the next move
+     *
+     * @return tree search of this thread, reset for the next search
+     */
+    TreeSearch resetTreeSearch(final boolean bestReplySearch, final int[] nextPlayerIds,
+                               final MoveSearch moveSearch) {
+        final TreeSearch treeSearch;
+
+        if(bestReplySearch) {
+            if(this.bestReplySearch == null) {
+                this.bestReplySearch = new BestReplySearch(this.rootPlayerId, nextPlayerIds, this.evaluation,
+                        this.transpositionTable, moveSearch, this.maxDepth);
+            }
+
+            treeSearch = this.bestReplySearch;
+        } else {
+            if(this.paranoidSearch == null) {
+                this.paranoidSearch = new ParanoidSearch(this.rootPlayerId, nextPlayerIds, this.evaluation,
+                        this.transpositionTable, moveSearch, this.maxDepth);
+            }
+
+            treeSearch = this.paranoidSearch;
+        }
+
+        treeSearch.reset(nextPlayerIds, moveSearch);
+
+        return treeSearch;
+    }
+}
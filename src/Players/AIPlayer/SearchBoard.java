@@ -0,0 +1,812 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+import Interface.PlayerMove;
+
+import java.util.*;
+
+/**
+ * Compact representation of the game board used by the search.  Every tile, including the
+ * extra tile, is packed into a short holding its maze path type, maze path orientation and
+ * treasure, the 49 tiles are stored in a flat array indexed by cell (row * BOARD_DIM + column)
+ * and the players are stored as cell positions.  Copying a SearchBoard copies a handful of
+ * primitive arrays instead of a graph of tiles, enums and player sets.
+ *
+ * Tile insertions and pawn moves are made in place and recorded on an undo stack, so the
+ * search can revert them in reverse order.  The maze connectivity and the Zobrist hash are
+ * updated incrementally; the hash always equals the hash the equivalent Board would have.
+ * A SearchBoard converts losslessly from and to a Board and its extra tile.
+ */
+class SearchBoard {
+    private static final int MAZE_PATH_TYPE_MASK = 0x3;
+    private static final int ORIENTATION_SHIFT = 2;
+    private static final int ORIENTATION_MASK = 0x3;
+    private static final int TREASURE_SHIFT = 4;
+    private static final int TREASURE_MASK = 0x1F;
+    private static final int NO_ORIENTATION_BIT = 1 << 9;
+
+    private static final int INSERT_TILE = 0;
+    private static final int MOVE_PAWN = 1;
+
+    private static final MazePathType[] MAZE_PATH_TYPES = MazePathType.values();
+    private static final MazePathOrientation[] MAZE_PATH_ORIENTATIONS = MazePathOrientation.values();
+    private static final TreasureType[] TREASURE_TYPES = TreasureType.values();
+    private static final int LINE_LENGTH = Coordinate.BOARD_DIM;
+    private static final int INSERTION_LOCATION_COUNT = Board.TILE_INSERTION_LOCATIONS.size();
+
+    /**
+     * Cells of the row or column shifted by each tile insertion location, starting with the
+     * insertion location and ending with the cell whose tile is pushed off the board
+     */
+    private static final int[][] LINE_CELLS = new int[INSERTION_LOCATION_COUNT][LINE_LENGTH];
+
+    /**
+     * Position of each cell in the shifted line of each tile insertion location, or -1 if the
+     * cell is not part of the line
+     */
+    private static final int[][] LINE_POSITIONS = new int[INSERTION_LOCATION_COUNT][MazeBitboard.CELL_COUNT];
+
+    /**
+     * Bitmask of the cells of the row or column shifted by each tile insertion location
+     */
+    private static final long[] LINE_MASKS = new long[INSERTION_LOCATION_COUNT];
+
+    /**
+     * Insertion location that becomes invalid after inserting at each tile insertion location
+     */
+    private static final int[] OPPOSITE_INSERTION_INDICES = new int[INSERTION_LOCATION_COUNT];
+
+    static {
+        for(int tileInsertionIndex = 0; tileInsertionIndex < INSERTION_LOCATION_COUNT; tileInsertionIndex++) {
+            final Coordinate tileInsertionLocation = Board.TILE_INSERTION_LOCATIONS.get(tileInsertionIndex);
+            final int rowIndex = tileInsertionLocation.getRow();
+            final int columnIndex = tileInsertionLocation.getCol();
+
+            Arrays.fill(LINE_POSITIONS[tileInsertionIndex], -1);
+
+            for(int position = 0; position < LINE_LENGTH; position++) {
+                final int cell;
+
+                //North side shifts down, south side shifts up, west side shifts right, east side shifts left
+                if(rowIndex == 0) {
+                    cell = position * Coordinate.BOARD_DIM + columnIndex;
+                } else if(rowIndex == Coordinate.BOARD_DIM - 1) {
+                    cell = (Coordinate.BOARD_DIM - 1 - position) * Coordinate.BOARD_DIM + columnIndex;
+                } else if(columnIndex == 0) {
+                    cell = rowIndex * Coordinate.BOARD_DIM + position;
+                } else {
+                    cell = rowIndex * Coordinate.BOARD_DIM + Coordinate.BOARD_DIM - 1 - position;
+                }
+
+                LINE_CELLS[tileInsertionIndex][position] = cell;
+                LINE_POSITIONS[tileInsertionIndex][cell] = position;
+                LINE_MASKS[tileInsertionIndex] |= 1L << cell;
+            }
+
+            OPPOSITE_INSERTION_INDICES[tileInsertionIndex] = Board.TILE_INSERTION_LOCATIONS.indexOf(
+                    MazeBitboard.toCoordinate(LINE_CELLS[tileInsertionIndex][LINE_LENGTH - 1]));
+        }
+    }
+
+    private final short[] cells;
+    private short extraTile;
+    private int invalidInsertionIndex;
+    private final int playerCount;
+    private final int[] playerCells;
+    private int[] playerHomeCells;
+    private int[][] playerTreasures;
+    private final int[] collectedTreasureCounts;
+    private final int[] treasureCells;
+    private long openToNorth;
+    private long openToEast;
+    private long openToSouth;
+    private long openToWest;
+    private final MazeBitboard mazeBitboard = new MazeBitboard();
+    //Cells whose tiles changed since the maze bitboard was last updated
+    private long staleMazeCells;
+    private long zobristHash;
+    private int[] undoStack;
+    private int undoStackSize;
+
+    /**
+     * Initializes the SearchBoard from the specified board and extra tile
+     *
+     * @param board - board to be represented
+     * @param extraTile - extra tile of the position
+     */
+    SearchBoard(final Board board, final Tile extraTile) {
+        this.cells = new short[MazeBitboard.CELL_COUNT];
+        this.treasureCells = new int[TREASURE_TYPES.length];
+
+        Arrays.fill(this.treasureCells, -1);
+
+        for(int cell = 0; cell < MazeBitboard.CELL_COUNT; cell++) {
+            this.cells[cell] = encode(board.getTile(cell / Coordinate.BOARD_DIM, cell % Coordinate.BOARD_DIM));
+            this.treasureCells[treasure(this.cells[cell])] = cell;
+        }
+
+        this.treasureCells[TreasureType.NONE.ordinal()] = -1;
+        this.extraTile = encode(extraTile);
+        this.invalidInsertionIndex = Board.TILE_INSERTION_LOCATIONS.indexOf(board.getInvalidInsertionLocation());
+        this.playerCount = board.getPlayerHomes().size();
+        this.playerCells = new int[this.playerCount + 1];
+        this.playerHomeCells = new int[this.playerCount + 1];
+        this.playerTreasures = new int[this.playerCount + 1][];
+        this.collectedTreasureCounts = new int[this.playerCount + 1];
+
+        for(int player = 1; player <= this.playerCount; player++) {
+            final Queue<TreasureType> remainingTreasures = board.getPlayerTreasures().get(player);
+            int treasureIndex = 0;
+
+            this.playerCells[player] = MazeBitboard.toCell(board.getPlayerLocation(player));
+            this.playerHomeCells[player] = MazeBitboard.toCell(board.getPlayerHome(player));
+            this.playerTreasures[player] = new int[remainingTreasures.size()];
+
+            for(TreasureType treasureType : remainingTreasures) {
+                this.playerTreasures[player][treasureIndex++] = treasureType.ordinal();
+            }
+        }
+
+        for(int cell = 0; cell < MazeBitboard.CELL_COUNT; cell++) {
+            updateOpenCells(cell);
+        }
+
+        this.staleMazeCells = MazeBitboard.ALL_CELLS;
+        this.zobristHash = computeZobristHash();
+        this.undoStack = new int[16];
+
+        assert this.zobristHash == board.getZobristHash() : "Search board hash does not match the board hash.";
+    }
+
+    /**
+     * Initializes the SearchBoard as a copy of the specified search board, including its
+     * undo stack
+     *
+     * @param searchBoard - search board to be copied
+     */
+    SearchBoard(final SearchBoard searchBoard) {
+        this.cells = searchBoard.cells.clone();
+        this.extraTile = searchBoard.extraTile;
+        this.invalidInsertionIndex = searchBoard.invalidInsertionIndex;
+        this.playerCount = searchBoard.playerCount;
+        this.playerCells = searchBoard.playerCells.clone();
+        this.playerHomeCells = searchBoard.playerHomeCells;
+        //Treasure piles never change, only the number of collected treasures does
+        this.playerTreasures = searchBoard.playerTreasures;
+        this.collectedTreasureCounts = searchBoard.collectedTreasureCounts.clone();
+        this.treasureCells = searchBoard.treasureCells.clone();
+        this.openToNorth = searchBoard.openToNorth;
+        this.openToEast = searchBoard.openToEast;
+        this.openToSouth = searchBoard.openToSouth;
+        this.openToWest = searchBoard.openToWest;
+        this.staleMazeCells = MazeBitboard.ALL_CELLS;
+        this.zobristHash = searchBoard.zobristHash;
+        this.undoStack = searchBoard.undoStack.clone();
+        this.undoStackSize = searchBoard.undoStackSize;
+    }
+
+    /**
+     * Resets the SearchBoard to a copy of the specified search board of the same game,
+     * including its undo stack.  The arrays of this SearchBoard are reused, so that a search
+     * thread can copy the root position of every search without allocating a new board.
+     *
+     * @param searchBoard - search board to be copied, with as many players as this one
+     */
+    void reset(final SearchBoard searchBoard) {
+        assert searchBoard.playerCount == this.playerCount : "Search board of another game can not be copied.";
+
+        System.arraycopy(searchBoard.cells, 0, this.cells, 0, this.cells.length);
+        this.extraTile = searchBoard.extraTile;
+        this.invalidInsertionIndex = searchBoard.invalidInsertionIndex;
+        System.arraycopy(searchBoard.playerCells, 0, this.playerCells, 0, this.playerCells.length);
+        this.playerHomeCells = searchBoard.playerHomeCells;
+        //Treasure piles never change during a search, but they are created anew for every move
+        this.playerTreasures = searchBoard.playerTreasures;
+        System.arraycopy(searchBoard.collectedTreasureCounts, 0, this.collectedTreasureCounts, 0,
+                this.collectedTreasureCounts.length);
+        System.arraycopy(searchBoard.treasureCells, 0, this.treasureCells, 0, this.treasureCells.length);
+        this.openToNorth = searchBoard.openToNorth;
+        this.openToEast = searchBoard.openToEast;
+        this.openToSouth = searchBoard.openToSouth;
+        this.openToWest = searchBoard.openToWest;
+        this.staleMazeCells = MazeBitboard.ALL_CELLS;
+        this.zobristHash = searchBoard.zobristHash;
+
+        if(this.undoStack.length < searchBoard.undoStackSize) {
+            this.undoStack = new int[searchBoard.undoStack.length];
+        }
+
+        System.arraycopy(searchBoard.undoStack, 0, this.undoStack, 0, searchBoard.undoStackSize);
+        this.undoStackSize = searchBoard.undoStackSize;
+    }
+
+    /**
+     * Converts the SearchBoard into an equivalent Board.  The extra tile is returned
+     * separately by toExtraTile.
+     *
+     * @return board equivalent to this SearchBoard
+     */
+    Board toBoard() {
+        final Board board = new Board();
+        final Tile[][] tiles = new Tile[Coordinate.BOARD_DIM][Coordinate.BOARD_DIM];
+        final Map<Integer, Coordinate> playerHomes = new HashMap<>();
+        final Map<Integer, Coordinate> playerLocations = new HashMap<>();
+        final Map<Integer, Queue<TreasureType>> playerTreasures = new HashMap<>();
+        final Map<TreasureType, Coordinate> treasureLocations = new HashMap<>();
+        final Set<Coordinate> validTileInsertionLocations = new HashSet<>(Board.TILE_INSERTION_LOCATIONS);
+
+        for(int cell = 0; cell < MazeBitboard.CELL_COUNT; cell++) {
+            final Tile tile = decode(this.cells[cell]);
+
+            tiles[cell / Coordinate.BOARD_DIM][cell % Coordinate.BOARD_DIM] = tile;
+
+            if(!tile.getTreasureType().equals(TreasureType.NONE)) {
+                treasureLocations.put(tile.getTreasureType(), new Coordinate(cell / Coordinate.BOARD_DIM,
+                        cell % Coordinate.BOARD_DIM));
+            }
+        }
+
+        for(int player = 1; player <= this.playerCount; player++) {
+            final Queue<TreasureType> remainingTreasures = new LinkedList<>();
+            final int playerCell = this.playerCells[player];
+
+            tiles[playerCell / Coordinate.BOARD_DIM][playerCell % Coordinate.BOARD_DIM].addPlayer(player);
+            playerHomes.put(player, MazeBitboard.toCoordinate(this.playerHomeCells[player]));
+            playerLocations.put(player, MazeBitboard.toCoordinate(playerCell));
+
+            for(int treasureIndex = this.collectedTreasureCounts[player];
+                treasureIndex < this.playerTreasures[player].length; treasureIndex++) {
+                remainingTreasures.add(TREASURE_TYPES[this.playerTreasures[player][treasureIndex]]);
+            }
+
+            playerTreasures.put(player, remainingTreasures);
+        }
+
+        if(this.invalidInsertionIndex >= 0) {
+            board.setInvalidInsertionLocation(Board.TILE_INSERTION_LOCATIONS.get(this.invalidInsertionIndex));
+            validTileInsertionLocations.remove(board.getInvalidInsertionLocation());
+        }
+
+        board.setBoard(tiles);
+        board.setValidTileInsertionLocations(validTileInsertionLocations);
+        board.setPlayerHomes(playerHomes);
+        board.setPlayerLocations(playerLocations);
+        board.setPlayerTreasures(playerTreasures);
+        board.setTreasureLocations(treasureLocations);
+        board.setZobristHash(this.zobristHash);
+
+        return board;
+    }
+
+    /**
+     * Converts the extra tile of this SearchBoard into an equivalent Tile
+     *
+     * @return extra tile of this SearchBoard
+     */
+    Tile toExtraTile() {
+        return decode(this.extraTile);
+    }
+
+    /**
+     * Encodes the specified PlayerMove as a search move
+     *
+     * @param playerMove - move to be encoded
+     *
+     * @return specified move, encoded by SearchMove
+     */
+    static int toSearchMove(final PlayerMove playerMove) {
+        final List<Coordinate> path = playerMove.getPath();
+
+        return SearchMove.encode(playerMove.getPlayerId(),
+                Board.TILE_INSERTION_LOCATIONS.indexOf(playerMove.getTileInsertion()), playerMove.getTileRotation(),
+                MazeBitboard.toCell(path.get(path.size() - 1)));
+    }
+
+    /**
+     * Converts the specified search move into the equivalent PlayerMove, with the path the
+     * pawn takes after the tile insertion.  The SearchBoard is left unchanged.
+     *
+     * @param move - move valid in the current position, encoded by SearchMove
+     *
+     * @return PlayerMove equivalent to the specified search move
+     */
+    PlayerMove toPlayerMove(final int move) {
+        final int player = SearchMove.player(move);
+        final int tileInsertionIndex = SearchMove.tileInsertionIndex(move);
+        final int mazePathOrientation = SearchMove.mazePathOrientation(move);
+
+        insertTile(tileInsertionIndex, mazePathOrientation);
+
+        final List<Coordinate> path = getMazeBitboard().findPath(getPlayerCell(player),
+                SearchMove.destinationCell(move));
+
+        undo();
+
+        return new PlayerMove(player, path, Board.TILE_INSERTION_LOCATIONS.get(tileInsertionIndex),
+                mazePathOrientation);
+    }
+
+    /**
+     * Inserts the extra tile, turned to the specified maze path orientation, at the specified
+     * tile insertion location.  The tile pushed off the board becomes the extra tile and
+     * players on it are moved onto the inserted tile.  Illegal argument exception is thrown
+     * if the tile insertion location is not valid at this time.
+     *
+     * @param tileInsertionIndex - index of the tile insertion location in
+     * Board.TILE_INSERTION_LOCATIONS
+     * @param mazePathOrientation - ordinal of the maze path orientation of the inserted tile
+     *
+     * @throws IllegalArgumentException if the tile insertion location is not valid at this time
+     */
+    void insertTile(final int tileInsertionIndex, final int mazePathOrientation) {
+        if(!isValidTileInsertionIndex(tileInsertionIndex)) {
+            throw new IllegalArgumentException("Specified tile insertion location is not a valid tile " +
+                    "insertion location.");
+        }
+
+        final int[] line = LINE_CELLS[tileInsertionIndex];
+        final short insertedTile = (short)((this.extraTile & ~(NO_ORIENTATION_BIT |
+                ORIENTATION_MASK << ORIENTATION_SHIFT)) | mazePathOrientation << ORIENTATION_SHIFT);
+        final short shiftedOutTile = this.cells[line[LINE_LENGTH - 1]];
+
+        pushUndo(INSERT_TILE | tileInsertionIndex << 1 | (this.invalidInsertionIndex + 1) << 5 |
+                (this.extraTile & 0xFFFF) << 16);
+
+        //Take the shifted line and the extra tile out of the hash, they are hashed back in after the shift
+        this.zobristHash ^= hashLine(line) ^ extraTileKey(this.extraTile) ^
+                Zobrist.invalidInsertionLocationKey(this.invalidInsertionIndex);
+
+        for(int position = LINE_LENGTH - 1; position > 0; position--) {
+            this.cells[line[position]] = this.cells[line[position - 1]];
+        }
+
+        this.cells[line[0]] = insertedTile;
+        this.extraTile = shiftedOutTile;
+        this.invalidInsertionIndex = OPPOSITE_INSERTION_INDICES[tileInsertionIndex];
+
+        //Every player on the line moves one cell along it; a player pushed off the board wraps onto the
+        //inserted tile
+        shiftPlayers(tileInsertionIndex, 1);
+        updateLine(tileInsertionIndex);
+
+        this.zobristHash ^= hashLine(line) ^ extraTileKey(this.extraTile) ^
+                Zobrist.invalidInsertionLocationKey(this.invalidInsertionIndex);
+
+        assert this.zobristHash == computeZobristHash() : "Incrementally updated hash is wrong.";
+    }
+
+    /**
+     * Moves the pawn of the specified player to the specified cell.  The player collects the
+     * treasure on the destination tile if it is the next treasure it needs to collect.  The
+     * reachability of the destination cell is not checked.
+     *
+     * @param player - player whose pawn is to be moved
+     * @param destinationCell - cell the pawn is to be moved to
+     */
+    void movePawn(final int player, final int destinationCell) {
+        final int currentCell = this.playerCells[player];
+        final int nextTreasure = getNextTreasureForPlayer(player);
+        final boolean collectsTreasure = nextTreasure != TreasureType.NONE.ordinal() &&
+                treasure(this.cells[destinationCell]) == nextTreasure;
+
+        pushUndo(MOVE_PAWN | player << 1 | currentCell << 8 | (collectsTreasure ? 1 << 14 : 0));
+
+        this.zobristHash ^= Zobrist.playerLocationKey(player, currentCell) ^
+                Zobrist.playerLocationKey(player, destinationCell);
+        this.playerCells[player] = destinationCell;
+
+        if(collectsTreasure) {
+            this.zobristHash ^= Zobrist.remainingTreasuresKey(player, getRemainingTreasureCount(player));
+            this.collectedTreasureCounts[player]++;
+            this.zobristHash ^= Zobrist.remainingTreasuresKey(player, getRemainingTreasureCount(player));
+        }
+    }
+
+    /**
+     * Reverts the most recent tile insertion or pawn move that has not been reverted yet
+     */
+    void undo() {
+        final int record = this.undoStack[--this.undoStackSize];
+
+        if((record & 1) == MOVE_PAWN) {
+            final int player = (record >>> 1) & 0x7F;
+            final int previousCell = (record >>> 8) & 0x3F;
+
+            if((record & 1 << 14) != 0) {
+                this.zobristHash ^= Zobrist.remainingTreasuresKey(player, getRemainingTreasureCount(player));
+                this.collectedTreasureCounts[player]--;
+                this.zobristHash ^= Zobrist.remainingTreasuresKey(player, getRemainingTreasureCount(player));
+            }
+
+            this.zobristHash ^= Zobrist.playerLocationKey(player, this.playerCells[player]) ^
+                    Zobrist.playerLocationKey(player, previousCell);
+            this.playerCells[player] = previousCell;
+
+            return;
+        }
+
+        final int tileInsertionIndex = (record >>> 1) & 0xF;
+        final int[] line = LINE_CELLS[tileInsertionIndex];
+        final short shiftedOutTile = this.extraTile;
+
+        this.zobristHash ^= hashLine(line) ^ extraTileKey(this.extraTile) ^
+                Zobrist.invalidInsertionLocationKey(this.invalidInsertionIndex);
+
+        for(int position = 0; position < LINE_LENGTH - 1; position++) {
+            this.cells[line[position]] = this.cells[line[position + 1]];
+        }
+
+        this.cells[line[LINE_LENGTH - 1]] = shiftedOutTile;
+        this.extraTile = (short)(record >>> 16);
+        this.invalidInsertionIndex = ((record >>> 5) & 0xF) - 1;
+
+        shiftPlayers(tileInsertionIndex, LINE_LENGTH - 1);
+        updateLine(tileInsertionIndex);
+
+        this.zobristHash ^= hashLine(line) ^ extraTileKey(this.extraTile) ^
+                Zobrist.invalidInsertionLocationKey(this.invalidInsertionIndex);
+
+        assert this.zobristHash == computeZobristHash() : "Incrementally updated hash is wrong.";
+    }
+
+    /**
+     * Gets the cells of the row or column shifted by the specified tile insertion location
+     *
+     * @param tileInsertionIndex - index of the tile insertion location in
+     * Board.TILE_INSERTION_LOCATIONS
+     *
+     * @return bitmask of the cells of the shifted line
+     */
+    static long getLineCells(final int tileInsertionIndex) {
+        return LINE_MASKS[tileInsertionIndex];
+    }
+
+    /**
+     * Checks if the specified tile insertion location is valid for tile insertion at this time
+     *
+     * @param tileInsertionIndex - index of the tile insertion location in
+     * Board.TILE_INSERTION_LOCATIONS
+     *
+     * @return True if the tile insertion location is valid for tile insertion at this time;
+     * false otherwise
+     */
+    boolean isValidTileInsertionIndex(final int tileInsertionIndex) {
+        return tileInsertionIndex != this.invalidInsertionIndex;
+    }
+
+    /**
+     * Gets the maze path type of the extra tile
+     *
+     * @return maze path type of the extra tile
+     */
+    MazePathType getExtraTileMazePathType() {
+        return MAZE_PATH_TYPES[this.extraTile & MAZE_PATH_TYPE_MASK];
+    }
+
+    /**
+     * Gets the cell the specified player is located at
+     *
+     * @param player - player whose cell is to be returned
+     *
+     * @return cell the specified player is located at
+     */
+    int getPlayerCell(final int player) {
+        return this.playerCells[player];
+    }
+
+    /**
+     * Gets the treasure the specified player needs to collect next
+     *
+     * @param player - player whose next treasure is to be returned
+     *
+     * @return ordinal of the treasure type the specified player needs to collect next, which
+     * is the ordinal of TreasureType.NONE if the player collected all of its treasures
+     */
+    int getNextTreasureForPlayer(final int player) {
+        return this.collectedTreasureCounts[player] < this.playerTreasures[player].length ?
+                this.playerTreasures[player][this.collectedTreasureCounts[player]] : TreasureType.NONE.ordinal();
+    }
+
+    /**
+     * Gets the cell the specified player needs to reach next, which is the cell of the tile
+     * having the player's next treasure or, if the player collected all of its treasures,
+     * the player's home cell
+     *
+     * @param player - player whose next goal cell is to be returned
+     *
+     * @return next goal cell of the specified player, or -1 if the player's next treasure is
+     * on the extra tile
+     */
+    int getNextGoalCellForPlayer(final int player) {
+        final int nextTreasure = getNextTreasureForPlayer(player);
+
+        return nextTreasure == TreasureType.NONE.ordinal() ? this.playerHomeCells[player] :
+                this.treasureCells[nextTreasure];
+    }
+
+    /**
+     * Gets the cell the specified player needs to reach after collecting the specified number
+     * of further treasures: the cell of the tile having that treasure or, once all treasures
+     * are collected, the player's home cell
+     *
+     * @param player - player whose goal cell is to be returned
+     * @param goalIndex - number of treasures collected before the goal, 0 for the next goal
+     *
+     * @return goal cell of the specified player, or -1 if the treasure is on the extra tile
+     */
+    int getGoalCellForPlayer(final int player, final int goalIndex) {
+        final int treasureIndex = this.collectedTreasureCounts[player] + goalIndex;
+
+        return treasureIndex < this.playerTreasures[player].length ?
+                this.treasureCells[this.playerTreasures[player][treasureIndex]] : this.playerHomeCells[player];
+    }
+
+    /**
+     * Gets the Zobrist hash of the position, equal to the hash of the equivalent Board
+     *
+     * @return Zobrist hash of the position
+     */
+    long getZobristHash() {
+        return this.zobristHash;
+    }
+
+    /**
+     * Gets the Zobrist hash of the tiles on the board, with their treasures, leaving out the
+     * extra tile, the invalid tile insertion location and the players
+     *
+     * @return Zobrist hash of the tiles on the board
+     */
+    long getMazeHash() {
+        long mazeHash = this.zobristHash ^ extraTileKey(this.extraTile) ^
+                Zobrist.invalidInsertionLocationKey(this.invalidInsertionIndex);
+
+        for(int player = 1; player <= this.playerCount; player++) {
+            mazeHash ^= Zobrist.playerLocationKey(player, this.playerCells[player]) ^
+                    Zobrist.remainingTreasuresKey(player, getRemainingTreasureCount(player));
+        }
+
+        return mazeHash;
+    }
+
+    /**
+     * Gets the bitboard representation of the maze connectivity of this SearchBoard.  The
+     * returned bitboard is reused and updated on the next call after a tile insertion, which
+     * keeps the connected components it found away from the shifted lines.
+     *
+     * @return bitboard representation of the maze connectivity of this SearchBoard
+     */
+    MazeBitboard getMazeBitboard() {
+        if(this.staleMazeCells != 0) {
+            this.mazeBitboard.updateOpenCells(this.openToNorth, this.openToEast, this.openToSouth, this.openToWest,
+                    this.staleMazeCells);
+            this.staleMazeCells = 0;
+        }
+
+        return this.mazeBitboard;
+    }
+
+    /**
+     * Finds the cell reachable from the specified start cell which is closest, by Manhattan
+     * distance, to the specified goal cell; ties go to the lowest cell
+     *
+     * @param startCell - cell the search starts at
+     * @param goalCell - cell to be approached
+     *
+     * @return the goal cell if it is reachable, otherwise the closest reachable cell
+     */
+    int findClosestApproachCell(final int startCell, final int goalCell) {
+        if(goalCell == startCell) {
+            return startCell;
+        }
+
+        return findClosestApproachCell(getMazeBitboard().findReachableCells(startCell), startCell, goalCell);
+    }
+
+    /**
+     * Finds the cell of the specified reachable cells which is closest, by Manhattan
+     * distance, to the specified goal cell; ties go to the lowest cell
+     *
+     * @param reachableCells - bitmask of the cells reachable from the start cell, including it
+     * @param startCell - cell the reachable cells are reached from
+     * @param goalCell - cell to be approached
+     *
+     * @return the goal cell if it is reachable, otherwise the closest reachable cell
+     */
+    static int findClosestApproachCell(final long reachableCells, final int startCell, final int goalCell) {
+        if((reachableCells & (1L << goalCell)) != 0) {
+            return goalCell;
+        }
+
+        int closestApproachCell = startCell;
+        int closestApproachManhattanDistanceToGoal = Integer.MAX_VALUE;
+
+        for(long remainingCells = reachableCells; remainingCells != 0; remainingCells &= remainingCells - 1) {
+            final int reachableCell = Long.numberOfTrailingZeros(remainingCells);
+            final int manhattanDistanceToGoal = MazeBitboard.calculateManhattanDistance(reachableCell, goalCell);
+
+            if(manhattanDistanceToGoal < closestApproachManhattanDistanceToGoal) {
+                closestApproachCell = reachableCell;
+                closestApproachManhattanDistanceToGoal = manhattanDistanceToGoal;
+            }
+        }
+
+        return closestApproachCell;
+    }
+
+    /**
+     * Finds the directions of the neighbours of the specified cell whose tiles have an exit
+     * towards it
+     *
+     * @param cell - cell whose neighbours are to be checked
+     *
+     * @return exit mask of the directions, seen from the specified cell, of the neighbours
+     * with an exit towards it
+     */
+    int findNeighboursOpenTowards(final int cell) {
+        final int rowIndex = cell / Coordinate.BOARD_DIM;
+        final int columnIndex = cell % Coordinate.BOARD_DIM;
+        int directions = 0;
+
+        if(rowIndex > 0 && (this.openToSouth & 1L << (cell - Coordinate.BOARD_DIM)) != 0) {
+            directions |= Tile.exitBit(CompassDirection.NORTH);
+        }
+
+        if(columnIndex < Coordinate.BOARD_DIM - 1 && (this.openToWest & 1L << (cell + 1)) != 0) {
+            directions |= Tile.exitBit(CompassDirection.EAST);
+        }
+
+        if(rowIndex < Coordinate.BOARD_DIM - 1 && (this.openToNorth & 1L << (cell + Coordinate.BOARD_DIM)) != 0) {
+            directions |= Tile.exitBit(CompassDirection.SOUTH);
+        }
+
+        if(columnIndex > 0 && (this.openToEast & 1L << (cell - 1)) != 0) {
+            directions |= Tile.exitBit(CompassDirection.WEST);
+        }
+
+        return directions;
+    }
+
+    /**
+     * Computes the Zobrist hash of the position from scratch
+     *
+     * @return Zobrist hash of the position
+     */
+    long computeZobristHash() {
+        long zobristHash = extraTileKey(this.extraTile) ^ Zobrist.invalidInsertionLocationKey(this.invalidInsertionIndex);
+
+        for(int cell = 0; cell < MazeBitboard.CELL_COUNT; cell++) {
+            zobristHash ^= tileKey(cell);
+        }
+
+        for(int player = 1; player <= this.playerCount; player++) {
+            zobristHash ^= Zobrist.playerLocationKey(player, this.playerCells[player]) ^
+                    Zobrist.remainingTreasuresKey(player, getRemainingTreasureCount(player));
+        }
+
+        return zobristHash;
+    }
+
+    /**
+     * Gets the number of treasures the specified player still has to collect
+     *
+     * @param player - player whose number of remaining treasures is to be returned
+     *
+     * @return number of treasures the specified player still has to collect
+     */
+    int getRemainingTreasureCount(final int player) {
+        return this.playerTreasures[player].length - this.collectedTreasureCounts[player];
+    }
+
+    /**
+     * Checks whether the specified player won, by collecting all of its treasures and
+     * returning to its home cell
+     *
+     * @param player - player to be checked
+     *
+     * @return True if the specified player won; false otherwise
+     */
+    boolean hasPlayerWon(final int player) {
+        return getRemainingTreasureCount(player) == 0 && this.playerCells[player] == this.playerHomeCells[player];
+    }
+
+    private void shiftPlayers(final int tileInsertionIndex, final int positions) {
+        final int[] line = LINE_CELLS[tileInsertionIndex];
+        final int[] linePositions = LINE_POSITIONS[tileInsertionIndex];
+
+        for(int player = 1; player <= this.playerCount; player++) {
+            final int position = linePositions[this.playerCells[player]];
+
+            if(position >= 0) {
+                final int shiftedCell = line[(position + positions) % LINE_LENGTH];
+
+                this.zobristHash ^= Zobrist.playerLocationKey(player, this.playerCells[player]) ^
+                        Zobrist.playerLocationKey(player, shiftedCell);
+                this.playerCells[player] = shiftedCell;
+            }
+        }
+    }
+
+    /**
+     * Refreshes the treasure locations and open cells of the tiles of the line shifted by the
+     * specified tile insertion location.  The treasure on the extra tile is no longer on the
+     * board.
+     */
+    private void updateLine(final int tileInsertionIndex) {
+        for(int cell : LINE_CELLS[tileInsertionIndex]) {
+            this.treasureCells[treasure(this.cells[cell])] = cell;
+            updateOpenCells(cell);
+        }
+
+        this.treasureCells[treasure(this.extraTile)] = -1;
+        this.treasureCells[TreasureType.NONE.ordinal()] = -1;
+        this.staleMazeCells |= LINE_MASKS[tileInsertionIndex];
+    }
+
+    private void updateOpenCells(final int cell) {
+        final int exits = Tile.getExits(this.cells[cell] & MAZE_PATH_TYPE_MASK,
+                (this.cells[cell] >>> ORIENTATION_SHIFT) & ORIENTATION_MASK);
+        final long cellBit = 1L << cell;
+
+        this.openToNorth = (this.openToNorth & ~cellBit) | exitCells(exits, CompassDirection.NORTH, cell);
+        this.openToEast = (this.openToEast & ~cellBit) | exitCells(exits, CompassDirection.EAST, cell);
+        this.openToSouth = (this.openToSouth & ~cellBit) | exitCells(exits, CompassDirection.SOUTH, cell);
+        this.openToWest = (this.openToWest & ~cellBit) | exitCells(exits, CompassDirection.WEST, cell);
+    }
+
+    private static long exitCells(final int exits, final CompassDirection compassDirection, final int cell) {
+        return (long)((exits >>> compassDirection.ordinal()) & 1) << cell;
+    }
+
+    private void pushUndo(final int record) {
+        if(this.undoStackSize == this.undoStack.length) {
+            this.undoStack = Arrays.copyOf(this.undoStack, this.undoStack.length * 2);
+        }
+
+        this.undoStack[this.undoStackSize++] = record;
+    }
+
+    private long hashLine(final int[] line) {
+        long lineHash = 0;
+
+        for(int cell : line) {
+            lineHash ^= tileKey(cell);
+        }
+
+        return lineHash;
+    }
+
+    private long tileKey(final int cell) {
+        final short tile = this.cells[cell];
+
+        return Zobrist.tileKey(cell, tile & MAZE_PATH_TYPE_MASK, (tile >>> ORIENTATION_SHIFT) & ORIENTATION_MASK,
+                treasure(tile));
+    }
+
+    private static long extraTileKey(final short tile) {
+        return Zobrist.extraTileKey(tile & MAZE_PATH_TYPE_MASK, treasure(tile));
+    }
+
+    private static int treasure(final short tile) {
+        return (tile >>> TREASURE_SHIFT) & TREASURE_MASK;
+    }
+
+    private static short encode(final Tile tile) {
+        final MazePathOrientation mazePathOrientation = tile.getMazePathOrientation();
+
+        return (short)(tile.getMazePathType().ordinal() |
+                (mazePathOrientation == null ? NO_ORIENTATION_BIT : mazePathOrientation.ordinal() << ORIENTATION_SHIFT) |
+                tile.getTreasureType().ordinal() << TREASURE_SHIFT);
+    }
+
+    private static Tile decode(final short tile) {
+        final MazePathType mazePathType = MAZE_PATH_TYPES[tile & MAZE_PATH_TYPE_MASK];
+        final TreasureType treasureType = TREASURE_TYPES[treasure(tile)];
+
+        if((tile & NO_ORIENTATION_BIT) != 0) {
+            return new Tile(mazePathType, treasureType);
+        }
+
+        return new Tile(mazePathType, MAZE_PATH_ORIENTATIONS[(tile >>> ORIENTATION_SHIFT) & ORIENTATION_MASK],
+                treasureType);
+    }
+}
@@ -0,0 +1,97 @@
+package Players.AIPlayer;
+
+/**
+ * Encodes a move considered by the search as a single int: the player making it, the index
+ * of the tile insertion location in Board.TILE_INSERTION_LOCATIONS, the maze path
+ * orientation of the inserted tile and the cell the pawn moves to.  Zero is reserved for
+ * "no move".  Encoded moves fit in 16 bits.
+ */
+final class SearchMove {
+    /**
+     * Encoding of "no move"
+     */
+    static final int NONE = 0;
+
+    private static final int DESTINATION_CELL_BITS = 6;
+    private static final int ORIENTATION_BITS = 2;
+    private static final int VALID_BIT = 1 << 12;
+    private static final int PLAYER_SHIFT = 13;
+
+    private SearchMove() {
+    }
+
+    /**
+     * Encodes the move identified by the specified parameters
+     *
+     * @param player - player making the move
+     * @param tileInsertionIndex - index of the tile insertion location in
+     * Board.TILE_INSERTION_LOCATIONS
+     * @param mazePathOrientation - ordinal of the maze path orientation of the inserted tile
+     * @param destinationCell - cell the pawn moves to
+     *
+     * @return encoded move
+     */
+    static int encode(final int player, final int tileInsertionIndex, final int mazePathOrientation,
+                      final int destinationCell) {
+        return player << PLAYER_SHIFT | VALID_BIT | tileInsertionIndex << (ORIENTATION_BITS + DESTINATION_CELL_BITS) |
+                mazePathOrientation << DESTINATION_CELL_BITS | destinationCell;
+    }
+
+    /**
+     * Gets the player making the specified move
+     *
+     * @param move - encoded move
+     *
+     * @return player making the move
+     */
+    static int player(final int move) {
+        return move >>> PLAYER_SHIFT;
+    }
+
+    /**
+     * Gets the index of the tile insertion location of the specified move
+     *
+     * @param move - encoded move
+     *
+     * @return index of the tile insertion location in Board.TILE_INSERTION_LOCATIONS
+     */
+    static int tileInsertionIndex(final int move) {
+        return (move >>> (ORIENTATION_BITS + DESTINATION_CELL_BITS)) & 0xF;
+    }
+
+    /**
+     * Gets the maze path orientation of the inserted tile of the specified move
+     *
+     * @param move - encoded move
+     *
+     * @return ordinal of the maze path orientation of the inserted tile
+     */
+    static int mazePathOrientation(final int move) {
+        return (move >>> DESTINATION_CELL_BITS) & ((1 << ORIENTATION_BITS) - 1);
+    }
+
+    /**
+     * Gets the cell the pawn moves to in the specified move
+     *
+     * @param move - encoded move
+     *
+     * @return cell the pawn moves to
+     */
+    static int destinationCell(final int move) {
+        return move & ((1 << DESTINATION_CELL_BITS) - 1);
+    }
+
+    /**
+     * Gets a readable representation of the specified move: the player, the tile insertion
+     * location, the maze path orientation ordinal of the inserted tile and the destination of
+     * the pawn
+     *
+     * @param move - encoded move
+     *
+     * @return readable representation of the specified move
+     */
+    static String toString(final int move) {
+        return "P" + player(move) + ":" + Board.TILE_INSERTION_LOCATIONS.get(tileInsertionIndex(move)) + "/" + mazePathOrientation(move) +
+                "->" + MazeBitboard.toCoordinate(destinationCell(move));
+    }
+}
@@ -11,83 +11,38 @@ class Tile  {
     private MazePathOrientation mazePathOrientation;
     private TreasureType treasureType;
     private Set<Integer> players;
-    private static boolean[][][] hasExitLookupTable;
+    private int exits;
+    private static final int[][] EXIT_MASKS;
 
     /**
-     * Initializes hasExitLookupTable to return true for the MazeTypePath, MazePathOrientation and CompassDirection
-     * combinations which cause the tile to have an exit
+     * Initializes EXIT_MASKS with the exits of every MazePathType and MazePathOrientation
+     * combination, one bit per CompassDirection ordinal
      */
     static {
-        hasExitLookupTable = new boolean[MazePathType.values().length]
-                [MazePathOrientation.values().length]
-                [CompassDirection.values().length];
+        EXIT_MASKS = new int[MazePathType.values().length][MazePathOrientation.values().length];
 
+        final int[] zeroDegreeExitMasks = new int[MazePathType.values().length];
+
+        zeroDegreeExitMasks[MazePathType.L.ordinal()] = exitBit(CompassDirection.WEST) |
+                exitBit(CompassDirection.NORTH);
+        zeroDegreeExitMasks[MazePathType.T.ordinal()] = exitBit(CompassDirection.SOUTH) |
+                exitBit(CompassDirection.WEST) | exitBit(CompassDirection.NORTH);
+        zeroDegreeExitMasks[MazePathType.I.ordinal()] = exitBit(CompassDirection.NORTH) |
+                exitBit(CompassDirection.SOUTH);
+
+        final int compassDirectionCount = CompassDirection.values().length;
+        final int allExits = (1 << compassDirectionCount) - 1;
+
+        //Every 90 degrees clockwise moves each exit to the next compass direction
         for(int mazePathType = 0; mazePathType < MazePathType.values().length; mazePathType++) {
             for(int mazePathOrientation = 0; mazePathOrientation < MazePathOrientation.values().length;
                 mazePathOrientation++) {
-                for(int compassDirection = 0; compassDirection < CompassDirection.values().length;
-                    compassDirection++) {
-                    hasExitLookupTable[mazePathType][mazePathOrientation][compassDirection] = false;
-                }
+                final int zeroDegreeExitMask = zeroDegreeExitMasks[mazePathType];
+
+                EXIT_MASKS[mazePathType][mazePathOrientation] = ((zeroDegreeExitMask << mazePathOrientation) |
+                        (zeroDegreeExitMask >>> (compassDirectionCount - mazePathOrientation))) & allExits;
             }
         }
-
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.ZERO.ordinal()]
-                [CompassDirection.NORTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.ZERO.ordinal()]
-                [CompassDirection.SOUTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.ONE_HUNDRED_EIGHTY.ordinal()]
-                [CompassDirection.NORTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.ONE_HUNDRED_EIGHTY.ordinal()]
-                [CompassDirection.SOUTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.NINETY.ordinal()]
-                [CompassDirection.EAST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.NINETY.ordinal()]
-                [CompassDirection.WEST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.TWO_HUNDRED_SEVENTY.ordinal()]
-                [CompassDirection.EAST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.I.ordinal()][MazePathOrientation.TWO_HUNDRED_SEVENTY.ordinal()]
-                [CompassDirection.WEST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.ZERO.ordinal()]
-                [CompassDirection.WEST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.ZERO.ordinal()]
-                [CompassDirection.NORTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.NINETY.ordinal()]
-                [CompassDirection.NORTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.NINETY.ordinal()]
-                [CompassDirection.EAST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.ONE_HUNDRED_EIGHTY.ordinal()]
-                [CompassDirection.EAST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.ONE_HUNDRED_EIGHTY.ordinal()]
-                [CompassDirection.SOUTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.TWO_HUNDRED_SEVENTY.ordinal()]
-                [CompassDirection.SOUTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.L.ordinal()][MazePathOrientation.TWO_HUNDRED_SEVENTY.ordinal()]
-                [CompassDirection.WEST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.ZERO.ordinal()]
-                [CompassDirection.SOUTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.ZERO.ordinal()]
-                [CompassDirection.WEST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.ZERO.ordinal()]
-                [CompassDirection.NORTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.NINETY.ordinal()]
-                [CompassDirection.WEST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.NINETY.ordinal()]
-                [CompassDirection.NORTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.NINETY.ordinal()]
-                [CompassDirection.EAST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.ONE_HUNDRED_EIGHTY.ordinal()]
-                [CompassDirection.NORTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.ONE_HUNDRED_EIGHTY.ordinal()]
-                [CompassDirection.EAST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.ONE_HUNDRED_EIGHTY.ordinal()]
-                [CompassDirection.SOUTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.TWO_HUNDRED_SEVENTY.ordinal()]
-                [CompassDirection.EAST.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.TWO_HUNDRED_SEVENTY.ordinal()]
-                [CompassDirection.SOUTH.ordinal()] = true;
-        hasExitLookupTable[MazePathType.T.ordinal()][MazePathOrientation.TWO_HUNDRED_SEVENTY.ordinal()]
-                [CompassDirection.WEST.ordinal()] = true;
     }
 
     /**
@@ -117,7 +72,7 @@ class Tile  {
          final MazePathOrientation mazePathOrientation,
          final TreasureType treasureType) {
         this(mazePathType, treasureType);
-        this.mazePathOrientation = mazePathOrientation;
+        setMazePathOrientation(mazePathOrientation);
     }
 
     /**
@@ -155,12 +110,24 @@ class Tile  {
     }
 
     /**
-     * Sets the maze path orientation of the tile
+     * Sets the maze path orientation of the tile and caches the exits of the tile
      *
      * @param mazePathOrientation - maze path orientation of the tile
      */
     void setMazePathOrientation(final MazePathOrientation mazePathOrientation) {
         this.mazePathOrientation = mazePathOrientation;
+        this.exits = mazePathOrientation == null ? 0 :
+                EXIT_MASKS[this.mazePathType.ordinal()][mazePathOrientation.ordinal()];
+    }
+
+    /**
+     * Gets the exits of the tile, one bit per CompassDirection ordinal.  A tile without
+     * orientation set has no exits.
+     *
+     * @return exit mask of the tile
+     */
+    int getExits() {
+        return this.exits;
     }
 
     /**
@@ -243,7 +210,30 @@ class Tile  {
                 "if it has an exit in a particular compass direction is not valid.");
         }
 
-        return Tile.hasExitLookupTable[this.mazePathType.ordinal()][this.mazePathOrientation.ordinal()]
-                [compassDirection.ordinal()];
+        return (this.exits & exitBit(compassDirection)) != 0;
+    }
+
+    /**
+     * Gets the exits of a tile of the specified maze path type and maze path orientation,
+     * one bit per CompassDirection ordinal
+     *
+     * @param mazePathType - ordinal of the maze path type of the tile
+     * @param mazePathOrientation - ordinal of the maze path orientation of the tile
+     *
+     * @return exit mask of the tile
+     */
+    static int getExits(final int mazePathType, final int mazePathOrientation) {
+        return EXIT_MASKS[mazePathType][mazePathOrientation];
+    }
+
+    /**
+     * Gets the bit representing the specified compass direction in exit masks
+     *
+     * @param compassDirection - compass direction whose bit is to be returned
+     *
+     * @return bit representing the specified compass direction
+     */
+    static int exitBit(final CompassDirection compassDirection) {
+        return 1 << compassDirection.ordinal();
     }
-}
\ No newline at end of file
+}
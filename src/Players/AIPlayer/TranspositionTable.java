@@ -0,0 +1,215 @@
+package Players.AIPlayer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size hash table of evaluated search positions, keyed by position hash.  Every bucket
+ * holds two entries: a depth-preferred entry, which is only replaced by deeper results or by
+ * results of a later search, and an always-replace entry, which takes everything else.
+ *
+ * The table is safe for concurrent readers and writers without locking.  Each entry is
+ * stored as two longs, the packed data and the key XORed with the data; a reader only
+ * accepts an entry whose two halves agree, so entries torn by racing writers read as misses.
+ */
+class TranspositionTable {
+    /**
+     * Bound type of a score which is exact
+     */
+    static final int EXACT = 0;
+
+    /**
+     * Bound type of a score which is a lower bound of the exact score
+     */
+    static final int LOWER_BOUND = 1;
+
+    /**
+     * Bound type of a score which is an upper bound of the exact score
+     */
+    static final int UPPER_BOUND = 2;
+
+    /**
+     * Result of a probe that found no entry
+     */
+    static final long NOT_FOUND = 0;
+
+    private static final int BYTES_PER_BUCKET = 32;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final long OCCUPIED_BIT = 1L << 63;
+    private static final int GENERATION_MASK = 0x1F;
+
+    private final AtomicLongArray entries;
+    private final int bucketMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile int generation;
+
+    /**
+     * Initializes the TranspositionTable with the largest power of two number of buckets
+     * fitting in the specified memory cap
+     *
+     * @param sizeInMegabytes - memory cap of the table in megabytes
+     */
+    TranspositionTable(final int sizeInMegabytes) {
+        final long bucketCount = Long.highestOneBit(Math.max(1, (long)sizeInMegabytes * 1024 * 1024 /
+                BYTES_PER_BUCKET));
+        //The entries of all buckets have to fit in one array, so the bucket count is capped at the largest power of
+        //two whose longs an array can hold
+        final int cappedBucketCount = (int)Math.min(bucketCount, Long.highestOneBit(Integer.MAX_VALUE /
+                LONGS_PER_BUCKET));
+        final long entryCount = (long)cappedBucketCount * LONGS_PER_BUCKET;
+
+        this.entries = new AtomicLongArray((int)entryCount);
+        this.bucketMask = cappedBucketCount - 1;
+    }
+
+    /**
+     * Marks the start of a new search.  Entries stored by earlier searches stay usable, but
+     * lose their protection against replacement.
+     */
+    void newSearch() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Removes every entry.  Used when the scores of the stored positions no longer hold, such
+     * as after a change of the turn order, which the keys do not cover.  No search may be
+     * running while the table is cleared.
+     */
+    void clear() {
+        for(int entry = 0; entry < this.entries.length(); entry++) {
+            this.entries.set(entry, NOT_FOUND);
+        }
+    }
+
+    /**
+     * Looks up the entry stored for the specified key
+     *
+     * @param key - hash of the position to be looked up
+     *
+     * @return packed entry data, to be read with the static accessors, or NOT_FOUND if there
+     * is no entry for the specified key
+     */
+    long probe(final long key) {
+        final int bucket = bucketOf(key);
+
+        for(int entry = bucket; entry < bucket + LONGS_PER_BUCKET; entry += LONGS_PER_ENTRY) {
+            final long data = this.entries.get(entry + 1);
+
+            if(data != NOT_FOUND && (this.entries.get(entry) ^ data) == key) {
+                this.hits.increment();
+
+                return data;
+            }
+        }
+
+        this.misses.increment();
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Stores an evaluated position
+     *
+     * @param key - hash of the evaluated position
+     * @param depth - depth, in plies, the position was searched to
+     * @param score - score of the position
+     * @param bound - bound type of the score: EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param bestMove - best move found in the position, encoded by SearchMove
+     */
+    void store(final long key, final int depth, final int score, final int bound, final int bestMove) {
+        final int currentGeneration = this.generation;
+        final long data = OCCUPIED_BIT |
+                (long)currentGeneration << 58 |
+                (long)(bound & 0x3) << 56 |
+                (long)(depth & 0xFF) << 48 |
+                (long)(bestMove & 0xFFFF) << 32 |
+                (score & 0xFFFFFFFFL);
+        final int bucket = bucketOf(key);
+        final long depthPreferredData = this.entries.get(bucket + 1);
+        final int entry;
+
+        if(depthPreferredData == NOT_FOUND ||
+                (this.entries.get(bucket) ^ depthPreferredData) == key ||
+                depth >= depth(depthPreferredData) ||
+                generation(depthPreferredData) != currentGeneration) {
+            entry = bucket;
+        } else {
+            entry = bucket + LONGS_PER_ENTRY;
+        }
+
+        this.entries.set(entry + 1, data);
+        this.entries.set(entry, key ^ data);
+    }
+
+    /**
+     * Gets the number of probes which found an entry
+     *
+     * @return number of probes which found an entry
+     */
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of probes which found no entry
+     *
+     * @return number of probes which found no entry
+     */
+    long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the score of the specified entry
+     *
+     * @param data - packed entry data returned by probe
+     *
+     * @return score of the entry
+     */
+    static int score(final long data) {
+        return (int)data;
+    }
+
+    /**
+     * Gets the best move of the specified entry
+     *
+     * @param data - packed entry data returned by probe
+     *
+     * @return best move of the entry, encoded by SearchMove
+     */
+    static int bestMove(final long data) {
+        return (int)(data >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * Gets the depth of the specified entry
+     *
+     * @param data - packed entry data returned by probe
+     *
+     * @return depth, in plies, the position of the entry was searched to
+     */
+    static int depth(final long data) {
+        return (int)(data >>> 48) & 0xFF;
+    }
+
+    /**
+     * Gets the bound type of the score of the specified entry
+     *
+     * @param data - packed entry data returned by probe
+     *
+     * @return EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    static int bound(final long data) {
+        return (int)(data >>> 56) & 0x3;
+    }
+
+    private static int generation(final long data) {
+        return (int)(data >>> 58) & GENERATION_MASK;
+    }
+
+    private int bucketOf(final long key) {
+        return ((int)(key ^ (key >>> 32)) & this.bucketMask) * LONGS_PER_BUCKET;
+    }
+}
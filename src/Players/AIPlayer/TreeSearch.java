@@ -0,0 +1,403 @@
+package Players.AIPlayer;
+
+import Interface.PlayerMove;
+
+import java.util.Arrays;
+
+/**
+ * Depth-limited game tree search on a SearchBoard.  A move is a tile insertion, with the
+ * orientation of the inserted tile, followed by a pawn move; the pawn move of each tile
+ * insertion is fixed to the player's next goal if it is reachable or otherwise to the
+ * reachable cell closest to it, which keeps the branching factor at the number of tile
+ * insertions.
+ *
+ * A TreeSearch keeps per-ply move lists, move ordering statistics and the principal
+ * variation of the last scored root move, so every search thread needs its own instance;
+ * it can be reset for the search of the next move instead of being created anew.
+ */
+abstract class TreeSearch {
+    /**
+     * Score of a position the root player won, less the number of plies it took
+     */
+    static final int WIN_SCORE = 1000000;
+
+    /**
+     * Score bound larger than any position score
+     */
+    static final int INFINITE_SCORE = WIN_SCORE + 1;
+
+    /**
+     * Largest number of moves of a position: every tile insertion location with every
+     * maze path orientation
+     */
+    static final int MAX_MOVE_COUNT = Board.TILE_INSERTION_LOCATIONS.size() * MazePathOrientation.values().length;
+
+    /**
+     * Largest number of moves searched at one ply: the moves of every opponent of the root
+     * player, which a best-reply search searches together
+     */
+    static final int MAX_PLY_MOVE_COUNT = MAX_MOVE_COUNT * (PlayerMove.MAX_PLAYERS - 1);
+
+    //Win scores within this many plies of WIN_SCORE are stored relative to the position
+    private static final int MAX_PLY = 64;
+    //Ordering scores of the hash move and the killer moves, above any history score
+    private static final int HASH_MOVE_ORDER = Integer.MAX_VALUE;
+    private static final int KILLER_MOVE_ORDER = Integer.MAX_VALUE - 2;
+    //Moves without the validity bit fit in 12 bits
+    private static final int HISTORY_SIZE = 1 << 12;
+
+    protected final int rootPlayerId;
+    protected int[] nextPlayerIds;
+    protected final Evaluation evaluation;
+    protected final TranspositionTable transpositionTable;
+    protected MoveSearch moveSearch;
+    protected final int[][] moveLists;
+    private final int[][] moveOrders;
+    private final int[][] killerMoves;
+    private final int[][] history = createHistory();
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+    private final int[][] principalVariations;
+    private final int[] principalVariationLengths;
+    private long nodeCount;
+
+    /**
+     * Initializes the TreeSearch with the specified parameters
+     *
+     * @param rootPlayerId - id of the player searching for a move
+     * @param nextPlayerIds - id of the player moving after each player, indexed by player id
+     * @param evaluation - static evaluation of the positions at the search horizon
+     * @param transpositionTable - transposition table shared by all search threads
+     * @param moveSearch - state of the search for the current move
+     * @param maxDepth - largest depth, in plies, that will be searched
+     */
+    TreeSearch(final int rootPlayerId,
+               final int[] nextPlayerIds,
+               final Evaluation evaluation,
+               final TranspositionTable transpositionTable,
+               final MoveSearch moveSearch,
+               final int maxDepth) {
+        this.rootPlayerId = rootPlayerId;
+        this.nextPlayerIds = nextPlayerIds;
+        this.evaluation = evaluation;
+        this.transpositionTable = transpositionTable;
+        this.moveSearch = moveSearch;
+        this.moveLists = new int[maxDepth + 1][MAX_PLY_MOVE_COUNT];
+        this.moveOrders = new int[maxDepth + 1][MAX_PLY_MOVE_COUNT];
+        this.killerMoves = new int[maxDepth + 1][2];
+        this.principalVariations = new int[maxDepth + 2][maxDepth + 1];
+        this.principalVariationLengths = new int[maxDepth + 2];
+    }
+
+    /**
+     * Resets the TreeSearch for the search of another move, keeping its arrays.  The killer
+     * moves and the counts of searched positions and of moves left out start over; the
+     * history scores are left to be seeded by seedHistory.
+     *
+     * @param nextPlayerIds - id of the player moving after each player, indexed by player id
+     * @param moveSearch - state of the search for the next move
+     */
+    void reset(final int[] nextPlayerIds, final MoveSearch moveSearch) {
+        this.nextPlayerIds = nextPlayerIds;
+        this.moveSearch = moveSearch;
+        this.nodeCount = 0;
+        this.moveGenerator.reset();
+
+        for(int[] plyKillerMoves : this.killerMoves) {
+            Arrays.fill(plyKillerMoves, SearchMove.NONE);
+        }
+    }
+
+    /**
+     * Scores the specified root move, searching the position it leads to.  The result is
+     * meaningless if the search was stopped meanwhile.
+     *
+     * @param searchBoard - search board of the root position, left unchanged
+     * @param rootMove - root move of the root player, encoded by SearchMove
+     * @param depth - depth, in plies and including the root move, to be searched
+     * @param alpha - score the root player is already guaranteed; a score not above it is
+     * only an upper bound of the exact score
+     *
+     * @return score of the root move for the root player
+     */
+    abstract int scoreRootMove(SearchBoard searchBoard, int rootMove, int depth, int alpha);
+
+    /**
+     * Gets the principal variation of the last scored root move: the root move followed by
+     * the best replies found for every ply
+     *
+     * @return principal variation of the last scored root move, encoded by SearchMove
+     */
+    int[] getPrincipalVariation() {
+        final int[] principalVariation = new int[this.principalVariationLengths[0]];
+
+        System.arraycopy(this.principalVariations[0], 0, principalVariation, 0, principalVariation.length);
+
+        return principalVariation;
+    }
+
+    /**
+     * Gets the number of positions searched by this TreeSearch
+     *
+     * @return number of positions searched by this TreeSearch
+     */
+    long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Gets the number of moves left out of the search by this TreeSearch, as they lead to
+     * the same position as another move
+     *
+     * @return number of moves left out of the search
+     */
+    long getDuplicateMoveCount() {
+        return this.moveGenerator.getDuplicateMoveCount();
+    }
+
+    /**
+     * Starts the history scores of the move ordering from the specified scores
+     *
+     * @param history - history scores to be copied, indexed by player and move
+     */
+    void seedHistory(final int[][] history) {
+        for(int player = 0; player < this.history.length; player++) {
+            System.arraycopy(history[player], 0, this.history[player], 0, HISTORY_SIZE);
+        }
+    }
+
+    /**
+     * Adds the history scores of the move ordering of this TreeSearch to the specified scores
+     *
+     * @param history - history scores to be added to, indexed by player and move
+     */
+    void addHistory(final int[][] history) {
+        for(int player = 0; player < this.history.length; player++) {
+            for(int move = 0; move < HISTORY_SIZE; move++) {
+                history[player][move] += this.history[player][move];
+            }
+        }
+    }
+
+    /**
+     * Creates a table of history scores which are all zero
+     *
+     * @return table of history scores, indexed by player and move
+     */
+    static int[][] createHistory() {
+        return new int[PlayerMove.MAX_PLAYERS + 1][HISTORY_SIZE];
+    }
+
+    /**
+     * Makes the specified move on the specified search board; it is reverted by undoMove
+     *
+     * @param searchBoard - search board the move is made on
+     * @param player - player making the move
+     * @param move - move to be made, encoded by SearchMove
+     */
+    static void makeMove(final SearchBoard searchBoard, final int player, final int move) {
+        searchBoard.insertTile(SearchMove.tileInsertionIndex(move), SearchMove.mazePathOrientation(move));
+        searchBoard.movePawn(player, SearchMove.destinationCell(move));
+    }
+
+    /**
+     * Reverts the last move made on the specified search board
+     *
+     * @param searchBoard - search board the move was made on
+     */
+    static void undoMove(final SearchBoard searchBoard) {
+        searchBoard.undo();
+        searchBoard.undo();
+    }
+
+    /**
+     * Finds the cell the pawn of the specified player moves to after a tile insertion: the
+     * player's next goal if it is reachable, or otherwise the reachable cell closest to it
+     *
+     * @param searchBoard - search board of the position after the tile insertion
+     * @param player - player moving its pawn
+     *
+     * @return cell the pawn moves to
+     */
+    static int findDestinationCell(final SearchBoard searchBoard, final int player) {
+        final int startCell = searchBoard.getPlayerCell(player);
+        final int goalCell = searchBoard.getNextGoalCellForPlayer(player);
+
+        //Goal cell is -1 if the player's next treasure is on the extra tile, in which case the pawn stays
+        if(goalCell < 0) {
+            return startCell;
+        }
+
+        return searchBoard.findClosestApproachCell(startCell, goalCell);
+    }
+
+    /**
+     * Counts a searched position
+     */
+    protected void countNode() {
+        this.nodeCount++;
+    }
+
+    /**
+     * Evaluates the specified position for the root player: the root player's progress
+     * minus the progress of its best placed opponent, if any opponent is left
+     *
+     * @param searchBoard - search board of the position
+     *
+     * @return score of the position for the root player
+     */
+    protected int evaluate(final SearchBoard searchBoard) {
+        final int rootPlayerProgress = this.evaluation.evaluate(searchBoard, this.rootPlayerId);
+        int player = this.nextPlayerIds[this.rootPlayerId];
+
+        if(player == this.rootPlayerId) {
+            return rootPlayerProgress;
+        }
+
+        int bestOpponentProgress = this.evaluation.evaluate(searchBoard, player);
+
+        for(player = this.nextPlayerIds[player]; player != this.rootPlayerId; player = this.nextPlayerIds[player]) {
+            bestOpponentProgress = Math.max(bestOpponentProgress, this.evaluation.evaluate(searchBoard, player));
+        }
+
+        return rootPlayerProgress - bestOpponentProgress;
+    }
+
+    /**
+     * Gets the score of the specified player winning the specified number of plies below
+     * the root
+     *
+     * @param player - player who won
+     * @param ply - number of plies below the root
+     *
+     * @return score of the win for the root player
+     */
+    protected int winScore(final int player, final int ply) {
+        return player == this.rootPlayerId ? WIN_SCORE - ply : -(WIN_SCORE - ply);
+    }
+
+    /**
+     * Converts a score found the specified number of plies below the root into the score
+     * stored in the transposition table, which counts wins from the position instead
+     */
+    protected static int toTranspositionTableScore(final int score, final int ply) {
+        return score > WIN_SCORE - MAX_PLY ? score + ply : score < -(WIN_SCORE - MAX_PLY) ? score - ply : score;
+    }
+
+    /**
+     * Converts a score stored in the transposition table into the score of the position the
+     * specified number of plies below the root
+     */
+    protected static int fromTranspositionTableScore(final int score, final int ply) {
+        return score > WIN_SCORE - MAX_PLY ? score - ply : score < -(WIN_SCORE - MAX_PLY) ? score + ply : score;
+    }
+
+    /**
+     * Generates the moves of the specified player at the specified ply and rates them for
+     * move ordering: the hash move first, then the killer moves of the ply, then the rest by
+     * their history score
+     *
+     * @return number of generated moves, which are taken in order by nextMove
+     */
+    protected int generateOrderedMoves(final SearchBoard searchBoard, final int player, final int ply,
+                                       final int hashMove) {
+        return rateMoves(ply, this.moveGenerator.generateMoves(searchBoard, player, this.moveLists[ply], 0), hashMove);
+    }
+
+    /**
+     * Generates the moves of every opponent of the root player at the specified ply and
+     * rates them for move ordering like generateOrderedMoves
+     *
+     * @return number of generated moves, which are taken in order by nextMove
+     */
+    protected int generateOrderedOpponentMoves(final SearchBoard searchBoard, final int ply, final int hashMove) {
+        int moveCount = 0;
+
+        for(int player = this.nextPlayerIds[this.rootPlayerId]; player != this.rootPlayerId;
+            player = this.nextPlayerIds[player]) {
+            moveCount = this.moveGenerator.generateMoves(searchBoard, player, this.moveLists[ply], moveCount);
+        }
+
+        return rateMoves(ply, moveCount, hashMove);
+    }
+
+    /**
+     * Selects the best rated of the moves generated at the specified ply from the specified
+     * index on, and swaps it to that index
+     *
+     * @return selected move
+     */
+    protected int nextMove(final int ply, final int index, final int moveCount) {
+        final int[] moves = this.moveLists[ply];
+        final int[] moveOrder = this.moveOrders[ply];
+        int bestIndex = index;
+
+        for(int otherIndex = index + 1; otherIndex < moveCount; otherIndex++) {
+            if(moveOrder[otherIndex] > moveOrder[bestIndex]) {
+                bestIndex = otherIndex;
+            }
+        }
+
+        final int move = moves[bestIndex];
+        final int order = moveOrder[bestIndex];
+
+        moves[bestIndex] = moves[index];
+        moveOrder[bestIndex] = moveOrder[index];
+        moves[index] = move;
+        moveOrder[index] = order;
+
+        return move;
+    }
+
+    /**
+     * Records that the specified move caused a cutoff at the specified ply and remaining
+     * depth
+     */
+    protected void recordCutoff(final int move, final int ply, final int depth) {
+        if(this.killerMoves[ply][0] != move) {
+            this.killerMoves[ply][1] = this.killerMoves[ply][0];
+            this.killerMoves[ply][0] = move;
+        }
+
+        this.history[SearchMove.player(move)][move & (HISTORY_SIZE - 1)] += depth * depth;
+    }
+
+    /**
+     * Clears the principal variation starting at the specified ply
+     */
+    protected void clearPrincipalVariation(final int ply) {
+        this.principalVariationLengths[ply] = 0;
+    }
+
+    /**
+     * Makes the specified move, followed by the principal variation of the next ply, the
+     * principal variation of the specified ply
+     */
+    protected void updatePrincipalVariation(final int ply, final int move) {
+        final int childLength = this.principalVariationLengths[ply + 1];
+
+        this.principalVariations[ply][0] = move;
+        System.arraycopy(this.principalVariations[ply + 1], 0, this.principalVariations[ply], 1, childLength);
+        this.principalVariationLengths[ply] = childLength + 1;
+    }
+
+    private int rateMoves(final int ply, final int moveCount, final int hashMove) {
+        final int[] moves = this.moveLists[ply];
+        final int[] moveOrder = this.moveOrders[ply];
+
+        for(int index = 0; index < moveCount; index++) {
+            final int move = moves[index];
+
+            if(move == hashMove) {
+                moveOrder[index] = HASH_MOVE_ORDER;
+            } else if(move == this.killerMoves[ply][0]) {
+                moveOrder[index] = KILLER_MOVE_ORDER;
+            } else if(move == this.killerMoves[ply][1]) {
+                moveOrder[index] = KILLER_MOVE_ORDER - 1;
+            } else {
+                moveOrder[index] = this.history[SearchMove.player(move)][move & (HISTORY_SIZE - 1)];
+            }
+        }
+
+        return moveCount;
+    }
+}
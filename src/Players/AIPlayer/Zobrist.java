@@ -0,0 +1,205 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+import Interface.PlayerMove;
+
+import java.util.Random;
+
+/**
+ * Random keys used to compute 64-bit Zobrist hashes of board positions.  The hash of a
+ * position is the exclusive or of the keys of its tiles, its extra tile, its invalid
+ * insertion location, the player locations and the number of treasures each player still
+ * has to collect.  A tile turned to orientations with the same exits has the same key in
+ * each of them.  Keys are generated from a fixed seed, so hashes are stable across runs
+ * and can be compared between game logs.
+ */
+final class Zobrist {
+    private static final long SEED = 0x4C61627972696E74L;
+    private static final int TREASURE_TYPE_COUNT = TreasureType.values().length;
+
+    private static final long[][][] TILE_KEYS = new long[MazeBitboard.CELL_COUNT]
+            [MazePathType.values().length][MazePathOrientation.values().length];
+    private static final long[][] TREASURE_KEYS = new long[MazeBitboard.CELL_COUNT][TREASURE_TYPE_COUNT];
+    private static final long[][] EXTRA_TILE_KEYS = new long[MazePathType.values().length][TREASURE_TYPE_COUNT];
+    private static final long[] INVALID_INSERTION_LOCATION_KEYS = new long[Board.TILE_INSERTION_LOCATIONS.size()];
+    private static final long[][] PLAYER_LOCATION_KEYS = new long[PlayerMove.MAX_PLAYERS + 1][MazeBitboard.CELL_COUNT];
+    private static final long[][] REMAINING_TREASURES_KEYS = new long[PlayerMove.MAX_PLAYERS + 1][TREASURE_TYPE_COUNT];
+    private static final long[] PLAYER_TO_MOVE_KEYS = new long[PlayerMove.MAX_PLAYERS + 1];
+
+    static {
+        final Random random = new Random(SEED);
+
+        for(int cell = 0; cell < MazeBitboard.CELL_COUNT; cell++) {
+            for(int mazePathType = 0; mazePathType < MazePathType.values().length; mazePathType++) {
+                for(int mazePathOrientation = 0; mazePathOrientation < MazePathOrientation.values().length;
+                    mazePathOrientation++) {
+                    TILE_KEYS[cell][mazePathType][mazePathOrientation] = random.nextLong();
+                }
+
+                //Orientations with the same exits make the same position, so they share the key of the first of them
+                for(int mazePathOrientation = 0; mazePathOrientation < MazePathOrientation.values().length;
+                    mazePathOrientation++) {
+                    TILE_KEYS[cell][mazePathType][mazePathOrientation] = TILE_KEYS[cell][mazePathType]
+                            [MoveGenerator.toDistinctOrientation(mazePathType, mazePathOrientation)];
+                }
+            }
+
+            //No treasure keeps a zero key, so that it does not change the hash
+            for(int treasureType = 1; treasureType < TREASURE_TYPE_COUNT; treasureType++) {
+                TREASURE_KEYS[cell][treasureType] = random.nextLong();
+            }
+        }
+
+        for(int mazePathType = 0; mazePathType < MazePathType.values().length; mazePathType++) {
+            for(int treasureType = 0; treasureType < TREASURE_TYPE_COUNT; treasureType++) {
+                EXTRA_TILE_KEYS[mazePathType][treasureType] = random.nextLong();
+            }
+        }
+
+        for(int index = 0; index < INVALID_INSERTION_LOCATION_KEYS.length; index++) {
+            INVALID_INSERTION_LOCATION_KEYS[index] = random.nextLong();
+        }
+
+        for(int player = 1; player <= PlayerMove.MAX_PLAYERS; player++) {
+            for(int cell = 0; cell < MazeBitboard.CELL_COUNT; cell++) {
+                PLAYER_LOCATION_KEYS[player][cell] = random.nextLong();
+            }
+
+            for(int remainingTreasures = 0; remainingTreasures < TREASURE_TYPE_COUNT; remainingTreasures++) {
+                REMAINING_TREASURES_KEYS[player][remainingTreasures] = random.nextLong();
+            }
+
+            PLAYER_TO_MOVE_KEYS[player] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of the specified tile located at the specified location
+     *
+     * @param rowIndex - row where the tile is located at
+     * @param columnIndex - column where the tile is located at
+     * @param tile - tile located at the specified location
+     *
+     * @return key of the specified tile located at the specified location
+     */
+    static long tileKey(final int rowIndex, final int columnIndex, final Tile tile) {
+        return tileKey(rowIndex * Coordinate.BOARD_DIM + columnIndex, tile.getMazePathType().ordinal(),
+                tile.getMazePathOrientation().ordinal(), tile.getTreasureType().ordinal());
+    }
+
+    /**
+     * Gets the key of the tile identified by the specified ordinals located at the specified cell
+     *
+     * @param cell - cell where the tile is located at
+     * @param mazePathType - ordinal of the maze path type of the tile
+     * @param mazePathOrientation - ordinal of the maze path orientation of the tile
+     * @param treasureType - ordinal of the treasure type located on the tile
+     *
+     * @return key of the tile located at the specified cell
+     */
+    static long tileKey(final int cell, final int mazePathType, final int mazePathOrientation,
+                        final int treasureType) {
+        return TILE_KEYS[cell][mazePathType][mazePathOrientation] ^ TREASURE_KEYS[cell][treasureType];
+    }
+
+    /**
+     * Gets the key of the specified extra tile.  The orientation of the extra tile is not
+     * part of the position, as the player inserting it chooses it.
+     *
+     * @param extraTile - extra tile whose key is to be returned
+     *
+     * @return key of the specified extra tile
+     */
+    static long extraTileKey(final Tile extraTile) {
+        return extraTileKey(extraTile.getMazePathType().ordinal(), extraTile.getTreasureType().ordinal());
+    }
+
+    /**
+     * Gets the key of the extra tile identified by the specified ordinals
+     *
+     * @param mazePathType - ordinal of the maze path type of the extra tile
+     * @param treasureType - ordinal of the treasure type located on the extra tile
+     *
+     * @return key of the extra tile
+     */
+    static long extraTileKey(final int mazePathType, final int treasureType) {
+        return EXTRA_TILE_KEYS[mazePathType][treasureType];
+    }
+
+    /**
+     * Gets the key of the specified invalid insertion location
+     *
+     * @param invalidInsertionLocation - insertion location not valid for insertion, or null
+     * if all insertion locations are valid
+     *
+     * @return key of the specified invalid insertion location
+     */
+    static long invalidInsertionLocationKey(final Coordinate invalidInsertionLocation) {
+        return invalidInsertionLocationKey(Board.TILE_INSERTION_LOCATIONS.indexOf(invalidInsertionLocation));
+    }
+
+    /**
+     * Gets the key of the invalid insertion location identified by the specified index
+     *
+     * @param invalidInsertionIndex - index of the insertion location not valid for insertion
+     * in Board.TILE_INSERTION_LOCATIONS, or -1 if all insertion locations are valid
+     *
+     * @return key of the invalid insertion location
+     */
+    static long invalidInsertionLocationKey(final int invalidInsertionIndex) {
+        return invalidInsertionIndex < 0 ? 0 : INVALID_INSERTION_LOCATION_KEYS[invalidInsertionIndex];
+    }
+
+    /**
+     * Gets the key of the specified player being located at the specified location
+     *
+     * @param player - player whose key is to be returned
+     * @param location - location of the player
+     *
+     * @return key of the specified player being located at the specified location
+     */
+    static long playerLocationKey(final int player, final Coordinate location) {
+        return playerLocationKey(player, MazeBitboard.toCell(location));
+    }
+
+    /**
+     * Gets the key of the specified player being located at the specified cell
+     *
+     * @param player - player whose key is to be returned
+     * @param cell - cell the player is located at
+     *
+     * @return key of the specified player being located at the specified cell
+     */
+    static long playerLocationKey(final int player, final int cell) {
+        return PLAYER_LOCATION_KEYS[player][cell];
+    }
+
+    /**
+     * Gets the key of the specified player having the specified number of treasures left to
+     * collect
+     *
+     * @param player - player whose key is to be returned
+     * @param remainingTreasures - number of treasures the player still has to collect
+     *
+     * @return key of the specified player having the specified number of treasures left to
+     * collect
+     */
+    static long remainingTreasuresKey(final int player, final int remainingTreasures) {
+        return REMAINING_TREASURES_KEYS[player][remainingTreasures];
+    }
+
+    /**
+     * Gets the key of the specified player being the next to move.  It is not part of the
+     * board hash; searches XOR it in when a stored result depends on who moves next.
+     *
+     * @param player - player who moves next
+     *
+     * @return key of the specified player being the next to move
+     */
+    static long playerToMoveKey(final int player) {
+        return PLAYER_TO_MOVE_KEYS[player];
+    }
+}
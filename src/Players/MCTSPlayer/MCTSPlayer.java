@@ -0,0 +1,21 @@
+package Players.MCTSPlayer;
+
+import Players.AIPlayer.AIPlayer;
+import Players.AIPlayer.SearchAlgorithm;
+
+/**
+ * MCTSPlayer Player
+ *
+ * The AI player choosing its moves by Monte Carlo tree search.  The search is tuned by the
+ * AI_MCTS_EXPLORATION and AI_MCTS_ROLLOUT_DEPTH configuration entries and runs on
+ * AI_SEARCH_THREADS threads, each growing its own tree.
+ */
+public class MCTSPlayer extends AIPlayer
+{
+	/**
+	 * Initializes the MCTSPlayer
+	 */
+	public MCTSPlayer() {
+		super(SearchAlgorithm.MONTE_CARLO_TREE_SEARCH);
+	}
+}
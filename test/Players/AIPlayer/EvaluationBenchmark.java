@@ -0,0 +1,207 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the evaluations of search positions on random two player games.  It times
+ * the evaluation of positions reached by random moves, each evaluated once for both players,
+ * and fixed depth searches from some of them, and prints the rates of each evaluation.
+ *
+ * Usage: EvaluationBenchmark [position count] [search depth] [seed]
+ */
+class EvaluationBenchmark {
+    private static final int PLAYER_COUNT = 2;
+    private static final int TREASURES_PER_PLAYER = 6;
+    private static final int MAX_PLAYOUT_LENGTH = 40;
+    private static final int SEARCH_COUNT = 20;
+    private static final int ROUNDS = 5;
+    private static final int MAX_PLANNED_GOAL_COUNT = 3;
+
+    public static void main(final String[] args) {
+        final int positionCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        final int searchDepth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        final Random random = new Random(args.length > 2 ? Long.parseLong(args[2]) : 1);
+        final List<SearchBoard> positions = createPositions(random, positionCount);
+
+        //Every round evaluates with fresh evaluations, so that caches start empty; the first rounds warm up the JIT
+        for(int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round);
+            benchmarkPositions("PROGRESS", new ProgressEvaluation(), positions);
+
+            for(int goalCount = 1; goalCount <= MAX_PLANNED_GOAL_COUNT; goalCount++) {
+                benchmarkPositions("DISTANCE_FIELD, " + goalCount + " goals", new DistanceFieldEvaluation(goalCount),
+                        positions);
+            }
+
+            benchmarkSearches("PROGRESS", new ProgressEvaluation(), positions, searchDepth);
+
+            for(int goalCount = 1; goalCount <= MAX_PLANNED_GOAL_COUNT; goalCount++) {
+                benchmarkSearches("DISTANCE_FIELD, " + goalCount + " goals", new DistanceFieldEvaluation(goalCount),
+                        positions, searchDepth);
+            }
+        }
+    }
+
+    private static void benchmarkPositions(final String name, final Evaluation evaluation,
+                                           final List<SearchBoard> positions) {
+        final long startTime = System.nanoTime();
+        long checksum = 0;
+
+        for(SearchBoard position : positions) {
+            for(int player = 1; player <= PLAYER_COUNT; player++) {
+                checksum += evaluation.evaluate(position, player);
+            }
+        }
+
+        final long elapsedTime = Math.max(1, System.nanoTime() - startTime);
+
+        System.out.println("  " + name + ": " + positions.size() * PLAYER_COUNT * TimeUnit.SECONDS.toNanos(1) /
+                elapsedTime + " evaluations per second" + describeCache(evaluation) + " (checksum " + checksum + ")");
+    }
+
+    private static void benchmarkSearches(final String name, final Evaluation evaluation,
+                                          final List<SearchBoard> positions, final int searchDepth) {
+        final int[] nextPlayerIds = {0, 2, 1};
+        final TranspositionTable transpositionTable = new TranspositionTable(16);
+        final SearchArena searchArena = new SearchArena(1, evaluation, transpositionTable, searchDepth);
+        final int[][] history = TreeSearch.createHistory();
+        final int positionStep = Math.max(1, positions.size() / SEARCH_COUNT);
+        final long startTime = System.nanoTime();
+        long nodeCount = 0;
+
+        for(int index = 0; index < positions.size(); index += positionStep) {
+            final SearchBoard position = positions.get(index);
+            final MoveSearch moveSearch = new MoveSearch(0, null);
+            final IterativeDeepeningSearch search = new IterativeDeepeningSearch(1,
+                    () -> searchArena.resetSearchBoard(position), moveSearch, null, searchDepth, PLAYER_COUNT, 1,
+                    () -> searchArena.resetTreeSearch(false, nextPlayerIds, moveSearch));
+
+            //Every position is searched from empty history scores, as the tree search is reused
+            search.seedHistory(history);
+            transpositionTable.newSearch();
+            search.search(new Random(index));
+            nodeCount += search.getNodeCount();
+        }
+
+        final long elapsedTime = Math.max(1, System.nanoTime() - startTime);
+
+        System.out.println("  " + name + ", search to depth " + searchDepth + ": " + nodeCount *
+                TimeUnit.SECONDS.toNanos(1) / elapsedTime + " nodes per second" + describeCache(evaluation));
+    }
+
+    private static String describeCache(final Evaluation evaluation) {
+        if(!(evaluation instanceof DistanceFieldEvaluation)) {
+            return "";
+        }
+
+        final DistanceFieldEvaluation distanceFieldEvaluation = (DistanceFieldEvaluation)evaluation;
+        final long lookups = distanceFieldEvaluation.getCacheHits() + distanceFieldEvaluation.getCacheMisses();
+
+        return ", wall layer cache hits " + distanceFieldEvaluation.getCacheHits() * 100 / Math.max(1, lookups) + "%";
+    }
+
+    /**
+     * Creates positions by playing random moves from random starting positions, stopping
+     * each game before it is won
+     */
+    private static List<SearchBoard> createPositions(final Random random, final int positionCount) {
+        final List<SearchBoard> positions = new ArrayList<>(positionCount);
+        final int[] moves = new int[TreeSearch.MAX_MOVE_COUNT];
+        final MoveGenerator moveGenerator = new MoveGenerator();
+
+        while(positions.size() < positionCount) {
+            final SearchBoard searchBoard = createSearchBoard(random);
+
+            for(int ply = 0; ply < MAX_PLAYOUT_LENGTH && positions.size() < positionCount; ply++) {
+                final int player = ply % PLAYER_COUNT + 1;
+                final int moveCount = moveGenerator.generateMoves(searchBoard, player, moves, 0);
+
+                TreeSearch.makeMove(searchBoard, player, moves[random.nextInt(moveCount)]);
+
+                if(searchBoard.hasPlayerWon(player)) {
+                    break;
+                }
+
+                positions.add(new SearchBoard(searchBoard));
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Creates the search board of a random starting position: fixed L tiles in the corners
+     * and random tiles, orientations and treasures everywhere else
+     */
+    static SearchBoard createSearchBoard(final Random random) {
+        final int cellCount = Coordinate.BOARD_DIM * Coordinate.BOARD_DIM;
+        final List<Integer> treasureIds = new ArrayList<>();
+
+        for(TreasureType treasureType : TreasureType.values()) {
+            if(treasureType.getId() >= 0) {
+                treasureIds.add(treasureType.getId());
+            }
+        }
+
+        //The four corner tiles hold no treasure, and the extra tile is one more tile
+        while(treasureIds.size() < cellCount - 4 + 1) {
+            treasureIds.add(-1);
+        }
+
+        Collections.shuffle(treasureIds, random);
+
+        final List<List<List<Integer>>> tiles = new ArrayList<>();
+        int treasureIndex = 0;
+
+        for(int rowIndex = 0; rowIndex < Coordinate.BOARD_DIM; rowIndex++) {
+            final List<List<Integer>> row = new ArrayList<>();
+
+            for(int columnIndex = 0; columnIndex < Coordinate.BOARD_DIM; columnIndex++) {
+                final boolean firstRow = rowIndex == 0;
+                final boolean lastRow = rowIndex == Coordinate.BOARD_DIM - 1;
+                final boolean firstColumn = columnIndex == 0;
+                final boolean lastColumn = columnIndex == Coordinate.BOARD_DIM - 1;
+
+                if((firstRow || lastRow) && (firstColumn || lastColumn)) {
+                    //L tiles turned to open towards the board
+                    final int rotation = firstRow ? (firstColumn ? 2 : 3) : (lastColumn ? 0 : 1);
+
+                    row.add(Arrays.asList(MazePathType.L.ordinal(), rotation, -1));
+                } else {
+                    row.add(Arrays.asList(random.nextInt(MazePathType.values().length),
+                            random.nextInt(MazePathOrientation.values().length), treasureIds.get(treasureIndex++)));
+                }
+            }
+
+            tiles.add(row);
+        }
+
+        final List<Coordinate> playerHomes = Arrays.asList(new Coordinate(0, 0),
+                new Coordinate(Coordinate.BOARD_DIM - 1, Coordinate.BOARD_DIM - 1));
+        final List<List<Integer>> treasures = new ArrayList<>();
+        final List<Integer> shuffledTreasureIds = new ArrayList<>();
+
+        for(int treasureId : treasureIds) {
+            if(treasureId >= 0) {
+                shuffledTreasureIds.add(treasureId);
+            }
+        }
+
+        for(int player = 0; player < PLAYER_COUNT; player++) {
+            treasures.add(new ArrayList<>(shuffledTreasureIds.subList(player * TREASURES_PER_PLAYER,
+                    (player + 1) * TREASURES_PER_PLAYER)));
+        }
+
+        final Tile extraTile = new Tile(MazePathType.fromId(random.nextInt(MazePathType.values().length)),
+                TreasureType.fromId(treasureIds.get(treasureIndex)));
+
+        return new SearchBoard(new Board(playerHomes, treasures, tiles, extraTile), extraTile);
+    }
+}
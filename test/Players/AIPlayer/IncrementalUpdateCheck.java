@@ -0,0 +1,357 @@
+package Players.AIPlayer;
+
+import Interface.Coordinate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Randomized check of the state the boards update incrementally.  It plays random tile
+ * insertions, pawn moves and undos on random two player games and after every step checks
+ * the incrementally updated state against a full recompute, throwing an illegal state
+ * exception at the first mismatch.  The same seed always plays the same games.
+ *
+ * The connected components a maze bitboard keeps across tile insertions are checked
+ * against the components of a maze bitboard built from scratch.  Only some steps and cells
+ * are checked, so that changed cells pile up between checks and the component index stays
+ * partial, as it does in a search.  The regions of the pawns are also checked to stay the
+ * same after each tile insertion which the move generator skips refilling them for.
+ *
+ * The distances and shortest paths the maze bitboard finds by its breadth first search, and
+ * the cells it finds connected, are checked against a plain breadth first search over the
+ * exits of the tiles of the Board.
+ *
+ * The Board has no undo, as it only follows the moves of the game.  A search board is
+ * played in step with it, and when the search board undoes a step the Board is rebuilt
+ * from it, so that the next insertions update the locations of the rebuilt Board.  After
+ * every step the Board is also converted to a search board and back, and both conversions
+ * are checked to keep the whole position.
+ *
+ * Usage: IncrementalUpdateCheck [game count] [steps per game] [seed]
+ */
+class IncrementalUpdateCheck {
+    private static final int PLAYER_COUNT = 2;
+    //One step in UNDO_ODDS undoes the previous step, as long as there is one
+    private static final int UNDO_ODDS = 3;
+    private static final int CHECKED_CELLS_PER_STEP = 4;
+    private static final CompassDirection[] COMPASS_DIRECTIONS = CompassDirection.values();
+    //Row and column offsets of the neighbour in each compass direction, indexed by CompassDirection ordinal
+    private static final int[] ROW_OFFSETS = {-1, 0, 1, 0};
+    private static final int[] COLUMN_OFFSETS = {0, 1, 0, -1};
+
+    private Board board;
+    private Tile extraTile;
+    private SearchBoard searchBoard;
+    private int undoableStepCount;
+    private long boardCheckCount;
+    private long roundTripCheckCount;
+    private long componentCheckCount;
+    private long playerRegionCheckCount;
+    private long pathCheckCount;
+    private long connectionCheckCount;
+
+    public static void main(final String[] args) {
+        final int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final int stepCount = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        final Random random = new Random(args.length > 2 ? Long.parseLong(args[2]) : 1);
+        final IncrementalUpdateCheck incrementalUpdateCheck = new IncrementalUpdateCheck();
+
+        for(int game = 0; game < gameCount; game++) {
+            incrementalUpdateCheck.checkGame(random, stepCount);
+        }
+
+        System.out.println("Board player and treasure locations: " + incrementalUpdateCheck.boardCheckCount +
+                " checks passed");
+        System.out.println("Board to search board to Board conversions: " +
+                incrementalUpdateCheck.roundTripCheckCount + " checks passed");
+        System.out.println("Maze bitboard components: " + incrementalUpdateCheck.componentCheckCount +
+                " checks passed");
+        System.out.println("Pawn regions kept across tile insertions: " +
+                incrementalUpdateCheck.playerRegionCheckCount + " checks passed");
+        System.out.println("Maze bitboard distances and shortest paths: " + incrementalUpdateCheck.pathCheckCount +
+                " checks passed");
+        System.out.println("Maze bitboard connected cells: " + incrementalUpdateCheck.connectionCheckCount +
+                " checks passed");
+    }
+
+    private void checkGame(final Random random, final int stepCount) {
+        this.searchBoard = EvaluationBenchmark.createSearchBoard(random);
+        this.undoableStepCount = 0;
+        rebuildBoard();
+
+        for(int step = 0; step < stepCount; step++) {
+            if(this.undoableStepCount > 0 && random.nextInt(UNDO_ODDS) == 0) {
+                this.searchBoard.undo();
+                this.undoableStepCount--;
+                rebuildBoard();
+            } else if(random.nextBoolean()) {
+                insertTile(random);
+            } else {
+                movePawn(random);
+            }
+
+            checkBoard();
+            checkRoundTrip();
+
+            if(random.nextBoolean()) {
+                checkComponents(random);
+                checkPlayerRegions();
+                checkPaths(random);
+            }
+        }
+    }
+
+    private void insertTile(final Random random) {
+        int tileInsertionIndex;
+
+        do {
+            tileInsertionIndex = random.nextInt(Board.TILE_INSERTION_LOCATIONS.size());
+        } while(!this.searchBoard.isValidTileInsertionIndex(tileInsertionIndex));
+
+        final int mazePathOrientation = random.nextInt(MazePathOrientation.values().length);
+
+        this.extraTile.setMazePathOrientation(MazePathOrientation.values()[mazePathOrientation]);
+        this.extraTile = this.board.insertTile(this.extraTile, Board.TILE_INSERTION_LOCATIONS.get(tileInsertionIndex));
+        this.searchBoard.insertTile(tileInsertionIndex, mazePathOrientation);
+        this.undoableStepCount++;
+    }
+
+    private void movePawn(final Random random) {
+        final int player = random.nextInt(PLAYER_COUNT) + 1;
+        final long reachableCells = this.searchBoard.getMazeBitboard().findReachableCells(
+                this.searchBoard.getPlayerCell(player));
+        int destinationCell;
+
+        do {
+            destinationCell = random.nextInt(MazeBitboard.CELL_COUNT);
+        } while((reachableCells & 1L << destinationCell) == 0);
+
+        this.board.movePlayer(player, MazeBitboard.toCoordinate(destinationCell));
+        this.searchBoard.movePawn(player, destinationCell);
+        this.undoableStepCount++;
+    }
+
+    private void rebuildBoard() {
+        this.board = this.searchBoard.toBoard();
+        this.extraTile = this.searchBoard.toExtraTile();
+    }
+
+    private void checkBoard() {
+        if(!this.board.matchesFullScan()) {
+            throw new IllegalStateException("Board player and treasure locations do not match the board.");
+        }
+
+        for(int player = 1; player <= PLAYER_COUNT; player++) {
+            final Coordinate playerLocation = this.board.getPlayerLocation(player);
+
+            if(MazeBitboard.toCell(playerLocation) != this.searchBoard.getPlayerCell(player)) {
+                throw new IllegalStateException("Board location of player " + player +
+                        " does not match the search board.");
+            }
+        }
+
+        this.boardCheckCount++;
+    }
+
+    private void checkRoundTrip() {
+        final SearchBoard convertedSearchBoard = new SearchBoard(this.board, this.extraTile);
+
+        if(convertedSearchBoard.getZobristHash() != this.board.getZobristHash() ||
+                convertedSearchBoard.getZobristHash() != this.searchBoard.getZobristHash()) {
+            throw new IllegalStateException("Search board converted from the Board holds another position.");
+        }
+
+        final Board convertedBoard = convertedSearchBoard.toBoard();
+
+        for(int rowIndex = 0; rowIndex < Coordinate.BOARD_DIM; rowIndex++) {
+            for(int columnIndex = 0; columnIndex < Coordinate.BOARD_DIM; columnIndex++) {
+                if(!isSameTile(convertedBoard.getTile(rowIndex, columnIndex),
+                        this.board.getTile(rowIndex, columnIndex))) {
+                    throw new IllegalStateException("Converted Board has another tile at row " + rowIndex +
+                            ", column " + columnIndex + ".");
+                }
+            }
+        }
+
+        if(!isSameTile(convertedSearchBoard.toExtraTile(), this.extraTile)) {
+            throw new IllegalStateException("Converted extra tile is another tile.");
+        }
+
+        if(!convertedBoard.getPlayerHomes().equals(this.board.getPlayerHomes()) ||
+                !convertedBoard.getPlayerLocations().equals(this.board.getPlayerLocations()) ||
+                !convertedBoard.getTreasureLocations().equals(this.board.getTreasureLocations()) ||
+                !convertedBoard.getValidTileInsertionLocations().equals(this.board.getValidTileInsertionLocations()) ||
+                !Objects.equals(convertedBoard.getInvalidInsertionLocation(),
+                        this.board.getInvalidInsertionLocation()) ||
+                convertedBoard.getZobristHash() != this.board.getZobristHash()) {
+            throw new IllegalStateException("Converted Board does not match the Board.");
+        }
+
+        for(int player = 1; player <= PLAYER_COUNT; player++) {
+            if(!new ArrayList<>(convertedBoard.getPlayerTreasures().get(player)).equals(
+                    new ArrayList<>(this.board.getPlayerTreasures().get(player)))) {
+                throw new IllegalStateException("Converted Board has other treasures left for player " + player + ".");
+            }
+        }
+
+        this.roundTripCheckCount++;
+    }
+
+    private static boolean isSameTile(final Tile tile1, final Tile tile2) {
+        return tile1.getMazePathType() == tile2.getMazePathType() &&
+                tile1.getMazePathOrientation() == tile2.getMazePathOrientation() &&
+                tile1.getTreasureType() == tile2.getTreasureType() &&
+                tile1.getPlayers().equals(tile2.getPlayers());
+    }
+
+    private void checkComponents(final Random random) {
+        final MazeBitboard mazeBitboard = this.searchBoard.getMazeBitboard();
+        //A copy of a search board builds its maze bitboard from scratch
+        final MazeBitboard recomputedMazeBitboard = new SearchBoard(this.searchBoard).getMazeBitboard();
+
+        for(int index = 0; index < CHECKED_CELLS_PER_STEP; index++) {
+            final int cell = random.nextInt(MazeBitboard.CELL_COUNT);
+
+            if(mazeBitboard.findReachableCells(cell) != recomputedMazeBitboard.findReachableCells(cell)) {
+                throw new IllegalStateException("Component of cell " + cell + " does not match the recomputed one.");
+            }
+
+            this.componentCheckCount++;
+        }
+    }
+
+    private void checkPlayerRegions() {
+        for(int player = 1; player <= PLAYER_COUNT; player++) {
+            final long playerRegion = this.searchBoard.getMazeBitboard().findReachableCells(
+                    this.searchBoard.getPlayerCell(player));
+
+            for(int tileInsertionIndex = 0; tileInsertionIndex < Board.TILE_INSERTION_LOCATIONS.size();
+                tileInsertionIndex++) {
+                if(!this.searchBoard.isValidTileInsertionIndex(tileInsertionIndex) || (playerRegion &
+                        MazeBitboard.findAffectedCells(SearchBoard.getLineCells(tileInsertionIndex))) != 0) {
+                    continue;
+                }
+
+                this.searchBoard.insertTile(tileInsertionIndex, 0);
+
+                final long recomputedPlayerRegion = new SearchBoard(this.searchBoard).getMazeBitboard()
+                        .findReachableCells(this.searchBoard.getPlayerCell(player));
+
+                this.searchBoard.undo();
+
+                if(recomputedPlayerRegion != playerRegion) {
+                    throw new IllegalStateException("Region of player " + player + " changed by tile insertion " +
+                            tileInsertionIndex + ", which does not reach it.");
+                }
+
+                this.playerRegionCheckCount++;
+            }
+        }
+    }
+
+    private void checkPaths(final Random random) {
+        final MazeBitboard mazeBitboard = this.searchBoard.getMazeBitboard();
+        final int startCell = random.nextInt(MazeBitboard.CELL_COUNT);
+        final int destinationCell = random.nextInt(MazeBitboard.CELL_COUNT);
+        final int[] referenceDistances = calculateReferenceDistances(startCell);
+
+        if(!Arrays.equals(mazeBitboard.calculateDistances(startCell), referenceDistances)) {
+            throw new IllegalStateException("Distances from cell " + startCell + " do not match the reference search.");
+        }
+
+        for(int cell = 0; cell < MazeBitboard.CELL_COUNT; cell++) {
+            if(mazeBitboard.isConnected(startCell, cell) != (referenceDistances[cell] != MazeBitboard.UNREACHABLE) ||
+                    mazeBitboard.isConnected(cell, startCell) != mazeBitboard.isConnected(startCell, cell)) {
+                throw new IllegalStateException("Cells " + startCell + " and " + cell +
+                        " are found connected by one search only.");
+            }
+
+            this.connectionCheckCount++;
+        }
+
+        if(referenceDistances[destinationCell] == MazeBitboard.UNREACHABLE) {
+            try {
+                mazeBitboard.findPath(startCell, destinationCell);
+            } catch(IllegalArgumentException e) {
+                this.pathCheckCount++;
+
+                return;
+            }
+
+            throw new IllegalStateException("Path found from cell " + startCell + " to unreachable cell " +
+                    destinationCell + ".");
+        }
+
+        final List<Coordinate> path = mazeBitboard.findPath(startCell, destinationCell);
+
+        if(path.size() != referenceDistances[destinationCell] + 1 || MazeBitboard.toCell(path.get(0)) != startCell ||
+                MazeBitboard.toCell(path.get(path.size() - 1)) != destinationCell) {
+            throw new IllegalStateException("Path from cell " + startCell + " to cell " + destinationCell +
+                    " is not a shortest path between them.");
+        }
+
+        for(int index = 1; index < path.size(); index++) {
+            if(!areConnected(MazeBitboard.toCell(path.get(index - 1)), MazeBitboard.toCell(path.get(index)))) {
+                throw new IllegalStateException("Path from cell " + startCell + " to cell " + destinationCell +
+                        " steps between tiles which are not connected.");
+            }
+        }
+
+        this.pathCheckCount++;
+    }
+
+    /**
+     * Breadth first search over the exits of the tiles of the Board, which the maze bitboard
+     * is not built from
+     */
+    private int[] calculateReferenceDistances(final int startCell) {
+        final int[] distances = new int[MazeBitboard.CELL_COUNT];
+        final Queue<Integer> cellsToVisit = new ArrayDeque<>();
+
+        Arrays.fill(distances, MazeBitboard.UNREACHABLE);
+        distances[startCell] = 0;
+        cellsToVisit.add(startCell);
+
+        while(!cellsToVisit.isEmpty()) {
+            final int cell = cellsToVisit.poll();
+
+            for(int neighbourCell = 0; neighbourCell < MazeBitboard.CELL_COUNT; neighbourCell++) {
+                if(distances[neighbourCell] == MazeBitboard.UNREACHABLE && areConnected(cell, neighbourCell)) {
+                    distances[neighbourCell] = distances[cell] + 1;
+                    cellsToVisit.add(neighbourCell);
+                }
+            }
+        }
+
+        return distances;
+    }
+
+    /**
+     * Checks whether the tiles of the specified cells are neighbours with exits facing each
+     * other on the Board
+     */
+    private boolean areConnected(final int cell1, final int cell2) {
+        final Coordinate coordinate1 = MazeBitboard.toCoordinate(cell1);
+        final Coordinate coordinate2 = MazeBitboard.toCoordinate(cell2);
+
+        for(CompassDirection compassDirection : COMPASS_DIRECTIONS) {
+            final int direction = compassDirection.ordinal();
+
+            if(coordinate1.getRow() + ROW_OFFSETS[direction] == coordinate2.getRow() &&
+                    coordinate1.getCol() + COLUMN_OFFSETS[direction] == coordinate2.getCol()) {
+                final CompassDirection oppositeDirection = COMPASS_DIRECTIONS[(direction + 2) %
+                        COMPASS_DIRECTIONS.length];
+
+                return this.board.getTile(coordinate1.getRow(), coordinate1.getCol()).hasExit(compassDirection) &&
+                        this.board.getTile(coordinate2.getRow(), coordinate2.getCol()).hasExit(oppositeDirection);
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package Players.AIPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the move generation on random two player games.  It times the generation of
+ * the moves of positions reached by random moves, and prints the time per generated move
+ * and the share of tile insertions for which the region of the pawn did not have to be
+ * filled again, as the shifted line does not reach it.
+ *
+ * Usage: MoveGenerationBenchmark [position count] [seed]
+ */
+class MoveGenerationBenchmark {
+    private static final int PLAYER_COUNT = 2;
+    private static final int MAX_PLAYOUT_LENGTH = 40;
+    private static final int ROUNDS = 8;
+    private static final int REPETITIONS = 10;
+
+    public static void main(final String[] args) {
+        final int positionCount = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        final Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 1);
+        final List<SearchBoard> positions = new ArrayList<>(positionCount);
+        final List<Integer> players = new ArrayList<>(positionCount);
+
+        createPositions(random, positionCount, positions, players);
+        System.out.println("Pawn region fills skipped: " + countSkippedRegionFills(positions, players) * 100 /
+                countTileInsertions(positions) + "% of the tile insertions");
+
+        //The first rounds warm up the JIT
+        for(int round = 1; round <= ROUNDS; round++) {
+            benchmarkMoveGeneration(round, positions, players);
+        }
+    }
+
+    private static void benchmarkMoveGeneration(final int round, final List<SearchBoard> positions,
+                                                final List<Integer> players) {
+        final MoveGenerator moveGenerator = new MoveGenerator();
+        final int[] moves = new int[TreeSearch.MAX_MOVE_COUNT];
+        final long startTime = System.nanoTime();
+        long moveCount = 0;
+        long checksum = 0;
+
+        for(int repetition = 0; repetition < REPETITIONS; repetition++) {
+            for(int index = 0; index < positions.size(); index++) {
+                final int positionMoveCount = moveGenerator.generateMoves(positions.get(index), players.get(index),
+                        moves, 0);
+
+                moveCount += positionMoveCount;
+                checksum += moves[positionMoveCount - 1];
+            }
+        }
+
+        final long elapsedTime = System.nanoTime() - startTime;
+
+        System.out.println("Round " + round + ": " + elapsedTime / Math.max(1, moveCount) + " ns per move, " +
+                moveCount * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedTime) + " moves per second (checksum " +
+                checksum + ")");
+    }
+
+    private static long countSkippedRegionFills(final List<SearchBoard> positions, final List<Integer> players) {
+        long skippedRegionFillCount = 0;
+
+        for(int index = 0; index < positions.size(); index++) {
+            final SearchBoard position = positions.get(index);
+            final long playerRegion = position.getMazeBitboard().findReachableCells(
+                    position.getPlayerCell(players.get(index)));
+
+            for(int tileInsertionIndex = 0; tileInsertionIndex < Board.TILE_INSERTION_LOCATIONS.size();
+                tileInsertionIndex++) {
+                if(position.isValidTileInsertionIndex(tileInsertionIndex) && (playerRegion &
+                        MazeBitboard.findAffectedCells(SearchBoard.getLineCells(tileInsertionIndex))) == 0) {
+                    skippedRegionFillCount++;
+                }
+            }
+        }
+
+        return skippedRegionFillCount;
+    }
+
+    private static long countTileInsertions(final List<SearchBoard> positions) {
+        long tileInsertionCount = 0;
+
+        for(SearchBoard position : positions) {
+            for(int tileInsertionIndex = 0; tileInsertionIndex < Board.TILE_INSERTION_LOCATIONS.size();
+                tileInsertionIndex++) {
+                if(position.isValidTileInsertionIndex(tileInsertionIndex)) {
+                    tileInsertionCount++;
+                }
+            }
+        }
+
+        return Math.max(1, tileInsertionCount);
+    }
+
+    /**
+     * Creates positions by playing random moves from random starting positions, stopping
+     * each game before it is won, along with the player to move in each
+     */
+    private static void createPositions(final Random random, final int positionCount,
+                                        final List<SearchBoard> positions, final List<Integer> players) {
+        final int[] moves = new int[TreeSearch.MAX_MOVE_COUNT];
+        final MoveGenerator moveGenerator = new MoveGenerator();
+
+        while(positions.size() < positionCount) {
+            final SearchBoard searchBoard = EvaluationBenchmark.createSearchBoard(random);
+
+            for(int ply = 0; ply < MAX_PLAYOUT_LENGTH && positions.size() < positionCount; ply++) {
+                final int player = ply % PLAYER_COUNT + 1;
+                final int moveCount = moveGenerator.generateMoves(searchBoard, player, moves, 0);
+
+                positions.add(new SearchBoard(searchBoard));
+                players.add(player);
+                TreeSearch.makeMove(searchBoard, player, moves[random.nextInt(moveCount)]);
+
+                if(searchBoard.hasPlayerWon(player)) {
+                    break;
+                }
+            }
+        }
+    }
+}